@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.twinklytree.internal.dto.ColorResponse;
+import org.openhab.core.library.types.HSBType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@link TwinklyTreeColorBenchmark} measures the conversion between {@link HSBType} and the device color.
+ *
+ * @author Pavion - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TwinklyTreeColorBenchmark {
+
+    private final ColorResponse response = new ColorResponse();
+    private final HSBType color = HSBType.fromRGB(255, 128, 0);
+
+    public TwinklyTreeColorBenchmark() {
+        response.hue = 30;
+        response.saturation = 255;
+        response.value = 200;
+    }
+
+    @Benchmark
+    public HSBType toHSBType() {
+        return TwinklyTreeHandler.toHSBType(response);
+    }
+
+    @Benchmark
+    public byte[] toColorRequest() {
+        return TwinklyTreeHandler.toColorRequest(color);
+    }
+}
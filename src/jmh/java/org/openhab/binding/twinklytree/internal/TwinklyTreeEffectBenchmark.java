@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.twinklytree.internal.TwinklyTreeEffectRenderer.Effect;
+import org.openhab.binding.twinklytree.internal.dto.LayoutResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+
+/**
+ * The {@link TwinklyTreeEffectBenchmark} measures decoding the LED layout and rendering a frame of each effect. At
+ * 30 frames per second a frame has to be rendered well within 33 ms.
+ *
+ * @author Pavion - Initial contribution
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TwinklyTreeEffectBenchmark {
+
+    @Param({ "250", "1000", "2000" })
+    public int ledCount;
+
+    @Param({ "GRADIENT", "SWEEP", "NOISE", "FIRE" })
+    public Effect effect = Effect.GRADIENT;
+
+    private final Gson gson = new Gson();
+    private String layoutJson = "";
+    private TwinklyTreeEffectRenderer renderer = new TwinklyTreeEffectRenderer(new LayoutResponse(), 1, 3);
+    private byte[] frame = new byte[3];
+    private float time;
+
+    @Setup
+    public void setUp() {
+        layoutJson = XledSimulator.layoutJson(ledCount);
+        renderer = new TwinklyTreeEffectRenderer(decodeLayout(), ledCount, 3);
+        frame = new byte[renderer.getFrameSize()];
+    }
+
+    @Benchmark
+    public LayoutResponse decodeLayout() {
+        return gson.fromJson(layoutJson, LayoutResponse.class);
+    }
+
+    @Benchmark
+    public byte[] render() {
+        time += 1 / 30f;
+        renderer.render(effect, time, frame);
+        return frame;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeMetrics.EndpointMetrics;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeMetrics.Histogram;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeRealtimeStreamer.Protocol;
+import org.openhab.core.thing.ThingStatus;
+
+/**
+ * The {@link TwinklyTreeLoadHarness} runs a number of {@link TwinklyTreeHandler}s, each polling its own
+ * {@link XledSimulator}, and reports throughput, tail latency and thread usage.
+ * <p>
+ * Arguments, all optional: <code>devices refreshSeconds durationSeconds latencyMillis lossRate tokenLifetimeSeconds
+ * realtimeFps</code>. With a realtime rate above 0, every device additionally streams realtime frames.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public final class TwinklyTreeLoadHarness {
+
+    private TwinklyTreeLoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int devices = intArg(args, 0, 50);
+        int refresh = intArg(args, 1, 1);
+        int duration = intArg(args, 2, 60);
+        int latency = intArg(args, 3, 20);
+        double lossRate = args.length > 4 ? Double.parseDouble(args[4]) : 0;
+        int tokenLifetime = intArg(args, 5, 14400);
+        int realtimeFps = intArg(args, 6, 0);
+
+        System.out.printf("Running %d devices with %d s refresh for %d s, %d ms latency, %.1f%% loss%n", devices,
+                refresh, duration, latency, lossRate * 100);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int baselineThreads = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        TwinklyTreeMetricsRegistry registry = new TwinklyTreeMetricsRegistry();
+        List<XledSimulator> simulators = new ArrayList<>();
+        List<TwinklyTreeHandler> handlers = new ArrayList<>();
+        List<TwinklyTreeRealtimeStreamer> streamers = new ArrayList<>();
+        try {
+            for (int i = 0; i < devices; i++) {
+                XledSimulator simulator = new XledSimulator().withLatency(Duration.ofMillis(latency))
+                        .withLossRate(lossRate).withTokenLifetime(tokenLifetime);
+                simulators.add(simulator);
+                handlers.add(HandlerFixture.create("load" + i, simulator.getHost(), refresh, 5, registry));
+                if (realtimeFps > 0) {
+                    streamers.add(startStreamer(i, simulator, realtimeFps));
+                }
+            }
+
+            Thread.sleep(Duration.ofSeconds(duration).toMillis());
+
+            report(registry, simulators, handlers, duration);
+            System.out.printf("Threads: %d before, %d now, %d peak, %d owned by the binding%n", baselineThreads,
+                    threads.getThreadCount(), threads.getPeakThreadCount(), countBindingThreads());
+        } finally {
+            streamers.forEach(TwinklyTreeRealtimeStreamer::dispose);
+            handlers.forEach(TwinklyTreeHandler::dispose);
+            simulators.forEach(XledSimulator::close);
+        }
+        System.exit(0);
+    }
+
+    private static TwinklyTreeRealtimeStreamer startStreamer(int index, XledSimulator simulator, int fps)
+            throws Exception {
+        int ledCount = 250;
+        TwinklyTreeRealtimeStreamer streamer = new TwinklyTreeRealtimeStreamer("load" + index,
+                simulator.getRealtimeAddress(), Protocol.V3, ledCount, 3);
+        streamer.setToken("AAAAAAAAAAA=");
+        streamer.submitFrame(new byte[streamer.getFrameSize()]);
+        streamer.start(fps);
+        return streamer;
+    }
+
+    private static void report(TwinklyTreeMetricsRegistry registry, List<XledSimulator> simulators,
+            List<TwinklyTreeHandler> handlers, int duration) {
+        long requests = 0;
+        long errors = 0;
+        long retries = 0;
+        long relogins = 0;
+        Histogram latency = new Histogram();
+        for (TwinklyTreeMetrics metrics : registry.getAll().values()) {
+            EndpointMetrics total = metrics.getTotal();
+            requests += total.getRequests();
+            errors += total.getErrors();
+            retries += total.getRetries();
+            relogins += metrics.getRelogins();
+            latency.add(total.getLatency());
+        }
+        long online = handlers.stream().filter(h -> h.getThing().getStatus() == ThingStatus.ONLINE).count();
+        long served = simulators.stream().mapToLong(XledSimulator::getRequestCount).sum();
+        long realtimePackets = simulators.stream().mapToLong(XledSimulator::getRealtimePacketCount).sum();
+
+        System.out.printf("Devices online: %d of %d%n", online, handlers.size());
+        System.out.printf("Requests: %d sent, %d served, %.1f per second%n", requests, served,
+                (double) requests / duration);
+        System.out.printf("Errors: %d, retries: %d, re-logins: %d%n", errors, retries, relogins);
+        System.out.printf("Latency: p50 %d ms, p95 %d ms, p99 %d ms%n", latency.getPercentile(50),
+                latency.getPercentile(95), latency.getPercentile(99));
+        if (realtimePackets > 0) {
+            System.out.printf("Realtime packets received: %d, %.1f per second%n", realtimePackets,
+                    (double) realtimePackets / duration);
+        }
+    }
+
+    private static long countBindingThreads() {
+        return Thread.getAllStackTraces().keySet().stream().filter(t -> t.getName().contains("twinklytree-"))
+                .count();
+    }
+
+    private static int intArg(String[] args, int index, int defaultValue) {
+        return args.length > index ? Integer.parseInt(args[index]) : defaultValue;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.twinklytree.internal.dto.MovieUploadResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@link TwinklyTreeMovieBenchmark} measures encoding a movie of 600 LEDs and uploading it to the
+ * {@link XledSimulator}.
+ *
+ * @author Pavion - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TwinklyTreeMovieBenchmark {
+
+    private static final int LED_COUNT = 600;
+
+    @Param({ "100", "3000" })
+    public int frames;
+
+    private final TwinklyTreeMovieEncoder encoder = new TwinklyTreeMovieEncoder(LED_COUNT, 3);
+    private final byte[] frame = new byte[LED_COUNT * 3];
+
+    private XledSimulator simulator;
+    private ScheduledExecutorService scheduler;
+    private TwinklyTreeClient client;
+    private TwinklyTreeTokenManager tokenManager;
+    private String token;
+
+    @Setup
+    public void setUp() throws IOException {
+        simulator = new XledSimulator();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        client = new TwinklyTreeClient("benchmark", URI.create("http://" + simulator.getHost()),
+                Duration.ofSeconds(5), Duration.ofSeconds(30),
+                new TwinklyTreeCircuitBreaker(Duration.ofSeconds(10), Duration.ofMinutes(5)), new TwinklyTreeMetrics());
+        tokenManager = new TwinklyTreeTokenManager(client, scheduler, newToken -> {
+        });
+        token = TwinklyTreeClient.await(tokenManager.getToken());
+    }
+
+    @TearDown
+    public void tearDown() {
+        tokenManager.dispose();
+        client.dispose();
+        scheduler.shutdownNow();
+        simulator.close();
+    }
+
+    @Benchmark
+    public int encode() {
+        encodeFrames();
+        return encoder.getPayload().remaining();
+    }
+
+    @Benchmark
+    public MovieUploadResponse encodeAndUpload() throws IOException {
+        encodeFrames();
+        return TwinklyTreeClient.await(client.sendBinary(TwinklyTreeEndpoint.MOVIE_FULL, encoder.getPayload(), token,
+                MovieUploadResponse.class));
+    }
+
+    private void encodeFrames() {
+        encoder.begin(frames);
+        for (int i = 0; i < frames; i++) {
+            frame[i % frame.length] = (byte) i;
+            encoder.addFrame(frame);
+        }
+    }
+}
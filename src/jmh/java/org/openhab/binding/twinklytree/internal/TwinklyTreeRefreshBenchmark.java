@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@link TwinklyTreeRefreshBenchmark} measures a refresh of all channels of a handler against the
+ * {@link XledSimulator}. With a state freshness of 0 every refresh reads all endpoints from the device, otherwise
+ * most refreshes are served from the state cache.
+ *
+ * @author Pavion - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TwinklyTreeRefreshBenchmark {
+
+    @Param({ "0", "5" })
+    public int stateFreshness;
+
+    private XledSimulator simulator;
+    private TwinklyTreeHandler handler;
+
+    @Setup
+    public void setUp() throws IOException {
+        simulator = new XledSimulator();
+        handler = HandlerFixture.create("benchmark", simulator.getHost(), 0, stateFreshness,
+                new TwinklyTreeMetricsRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        handler.dispose();
+        simulator.close();
+    }
+
+    @Benchmark
+    public void refreshState() throws IOException {
+        TwinklyTreeClient.await(handler.refreshLinkedChannels());
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.twinklytree.internal.dto.BrightnessResponse;
+import org.openhab.binding.twinklytree.internal.dto.ColorResponse;
+import org.openhab.binding.twinklytree.internal.dto.XledResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * The {@link TwinklyTreeRequestBenchmark} measures building request bodies, decoding responses and a full request
+ * round trip against the {@link XledSimulator}.
+ *
+ * @author Pavion - Initial contribution
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TwinklyTreeRequestBenchmark {
+
+    private static final byte[] COLOR_RESPONSE = ("{\"hue\":120,\"saturation\":200,\"value\":255,"
+            + "\"red\":0,\"green\":255,\"blue\":0,\"code\":1000}").getBytes(StandardCharsets.UTF_8);
+
+    private final TypeAdapter<ColorResponse> colorAdapter = new Gson().getAdapter(ColorResponse.class);
+
+    private XledSimulator simulator;
+    private ScheduledExecutorService scheduler;
+    private TwinklyTreeClient client;
+    private TwinklyTreeTokenManager tokenManager;
+    private String token;
+    private int brightness;
+
+    @Setup
+    public void setUp() throws IOException {
+        simulator = new XledSimulator();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        client = new TwinklyTreeClient("benchmark", URI.create("http://" + simulator.getHost()),
+                Duration.ofSeconds(5), Duration.ofSeconds(10),
+                new TwinklyTreeCircuitBreaker(Duration.ofSeconds(10), Duration.ofMinutes(5)), new TwinklyTreeMetrics());
+        tokenManager = new TwinklyTreeTokenManager(client, scheduler, newToken -> {
+        });
+        token = TwinklyTreeClient.await(tokenManager.getToken());
+    }
+
+    @TearDown
+    public void tearDown() {
+        tokenManager.dispose();
+        client.dispose();
+        scheduler.shutdownNow();
+        simulator.close();
+    }
+
+    @Benchmark
+    public byte[] buildBrightnessRequest() {
+        brightness = (brightness + 1) % 101;
+        return TwinklyTreeRequests.brightness(brightness);
+    }
+
+    @Benchmark
+    public byte[] buildModeRequest() {
+        return TwinklyTreeRequests.mode(TwinklyTreeBindingConstants.MODE_MOVIE);
+    }
+
+    @Benchmark
+    public ColorResponse decodeColorResponse() throws IOException {
+        try (JsonReader reader = new JsonReader(
+                new InputStreamReader(new ByteArrayInputStream(COLOR_RESPONSE), StandardCharsets.UTF_8))) {
+            return colorAdapter.read(reader);
+        }
+    }
+
+    @Benchmark
+    public BrightnessResponse getBrightness() throws IOException {
+        return client.sendAndWait(TwinklyTreeEndpoint.BRIGHTNESS, "GET", null, token, BrightnessResponse.class);
+    }
+
+    @Benchmark
+    public XledResponse setBrightness() throws IOException {
+        brightness = (brightness + 1) % 101;
+        return client.sendAndWait(TwinklyTreeEndpoint.BRIGHTNESS, "POST", TwinklyTreeRequests.brightness(brightness),
+                token, XledResponse.class);
+    }
+}
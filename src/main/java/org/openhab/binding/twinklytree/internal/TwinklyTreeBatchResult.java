@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link TwinklyTreeBatchResult} holds the outcome of every operation of a batch, keyed by the lower case name of
+ * its endpoint, and the time the whole batch took.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeBatchResult {
+
+    public static final String OK = "OK";
+    public static final String SKIPPED = "skipped";
+
+    private final Map<String, String> results = new LinkedHashMap<>();
+    private Duration latency = Duration.ZERO;
+
+    void put(TwinklyTreeEndpoint endpoint, String result) {
+        results.put(endpoint.name().toLowerCase(Locale.ROOT), result);
+    }
+
+    void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * Returns {@link #OK}, {@link #SKIPPED} or the error of every operation, in the order they were sent.
+     */
+    public Map<String, String> getResults() {
+        return Collections.unmodifiableMap(results);
+    }
+
+    public boolean isSuccess() {
+        return results.values().stream().allMatch(OK::equals);
+    }
+
+    public Duration getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        return results + " in " + latency.toMillis() + " ms";
+    }
+}
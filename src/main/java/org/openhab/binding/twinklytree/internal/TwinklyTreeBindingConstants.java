@@ -29,6 +29,11 @@ public class TwinklyTreeBindingConstants {
 
     // List of all Thing Type UIDs
     public static final ThingTypeUID THING_TYPE_TWINKLY = new ThingTypeUID(BINDING_ID, "twinkly");
+    public static final ThingTypeUID THING_TYPE_GROUP = new ThingTypeUID(BINDING_ID, "group");
+
+    // Configuration and properties
+    public static final String CONFIG_HOST = "host";
+    public static final String PROPERTY_LED_COUNT = "ledCount";
 
     // List of all Channel ids
     public static final String CHANNEL_SWITCH = "switch";
@@ -37,6 +42,15 @@ public class TwinklyTreeBindingConstants {
     public static final String CHANNEL_CURRENT_EFFECT = "currenteffect";
     public static final String CHANNEL_CURRENT_MOVIE = "currentmovie";
     public static final String CHANNEL_COLOR = "color";
+    public static final String CHANNEL_LATENCY = "latency";
+    public static final String CHANNEL_REQUEST_COUNT = "requestcount";
+    public static final String CHANNEL_ERROR_COUNT = "errorcount";
+    public static final String CHANNEL_RETRY_COUNT = "retrycount";
+    public static final String CHANNEL_RELOGIN_COUNT = "relogincount";
+    public static final String CHANNEL_COALESCED_COUNT = "coalescedcount";
+    public static final String CHANNEL_LATENCY_P50 = "latencyp50";
+    public static final String CHANNEL_LATENCY_P95 = "latencyp95";
+    public static final String CHANNEL_LATENCY_P99 = "latencyp99";
 
     public static final String MODE_OFF = "off";
     public static final String MODE_COLOR = "color";
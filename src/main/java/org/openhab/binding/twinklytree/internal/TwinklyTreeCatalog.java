@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link TwinklyTreeCatalog} caches rarely changing device information such as the gestalt and the stored
+ * movies, effects and playlist. Entries are loaded again once they are older than the time to live, or after they
+ * have been invalidated.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeCatalog {
+
+    /**
+     * Loads an entry from the device.
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws IOException;
+    }
+
+    private static class Entry {
+        private final Object value;
+        private final long loadedAt;
+
+        Entry(Object value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final Map<TwinklyTreeEndpoint, Entry> entries = new EnumMap<>(TwinklyTreeEndpoint.class);
+    private final long ttlNanos;
+
+    public TwinklyTreeCatalog(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Returns the cached entry of the endpoint, loading it first if it is missing or expired.
+     */
+    public <T> T get(TwinklyTreeEndpoint endpoint, Class<T> type, Loader<T> loader) throws IOException {
+        synchronized (this) {
+            Entry entry = entries.get(endpoint);
+            if (entry != null && System.nanoTime() - entry.loadedAt < ttlNanos) {
+                return type.cast(entry.value);
+            }
+        }
+        T value = loader.load();
+        synchronized (this) {
+            entries.put(endpoint, new Entry(value, System.nanoTime()));
+        }
+        return value;
+    }
+
+    /**
+     * Returns the cached entry of the endpoint regardless of its age, without loading it.
+     */
+    public synchronized <T> @Nullable T getCached(TwinklyTreeEndpoint endpoint, Class<T> type) {
+        Entry entry = entries.get(endpoint);
+        return entry != null ? type.cast(entry.value) : null;
+    }
+
+    public synchronized void invalidate(TwinklyTreeEndpoint endpoint) {
+        entries.remove(endpoint);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link TwinklyTreeCircuitBreaker} tracks whether a device is reachable. After a number of consecutive
+ * failures the circuit opens and requests fail fast. Once the retry delay has passed, a single probe request is let
+ * through (half-open). A successful probe closes the circuit, a failed one opens it again with an exponentially
+ * growing, jittered delay.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private static final int FAILURE_THRESHOLD = 3;
+    private static final double JITTER = 0.2;
+
+    private final Logger logger = LoggerFactory.getLogger(TwinklyTreeCircuitBreaker.class);
+
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+    private final LongSupplier nanoClock;
+    private final DoubleSupplier random;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long retryDelayNanos;
+    private long retryAt;
+
+    public TwinklyTreeCircuitBreaker(Duration baseDelay, Duration maxDelay) {
+        this(baseDelay, maxDelay, System::nanoTime, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * @param nanoClock the time source, in nanoseconds like {@link System#nanoTime()}
+     * @param random the source of the jitter, returning values from 0 (inclusive) to 1 (exclusive)
+     */
+    TwinklyTreeCircuitBreaker(Duration baseDelay, Duration maxDelay, LongSupplier nanoClock, DoubleSupplier random) {
+        this.baseDelayNanos = baseDelay.toNanos();
+        this.maxDelayNanos = Math.max(baseDelayNanos, maxDelay.toNanos());
+        this.retryDelayNanos = baseDelayNanos;
+        this.nanoClock = nanoClock;
+        this.random = random;
+    }
+
+    /**
+     * Returns whether a request may be sent. While the circuit is open, only one probe is let through once the
+     * retry delay has passed.
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoClock.getAsLong() - retryAt >= 0) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            case HALF_OPEN:
+            default:
+                return false;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            logger.debug("Twinkly is reachable again, closing circuit");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        retryDelayNanos = baseDelayNanos;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN) {
+            retryDelayNanos = Math.min(maxDelayNanos, retryDelayNanos * 2);
+            open();
+        } else if (state == State.CLOSED && consecutiveFailures >= FAILURE_THRESHOLD) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized boolean isClosed() {
+        return state == State.CLOSED;
+    }
+
+    /**
+     * Returns the time until the next probe may be sent, or zero if the circuit is not open.
+     */
+    public synchronized Duration getRetryDelay() {
+        if (state != State.OPEN) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(Math.max(0, retryAt - nanoClock.getAsLong()));
+    }
+
+    /**
+     * Returns the time to wait before retrying a failed request: the time until the next probe while the circuit is
+     * open, otherwise the current backoff delay.
+     */
+    public synchronized Duration getBackoffDelay() {
+        if (state == State.OPEN) {
+            return getRetryDelay();
+        }
+        return Duration.ofNanos(retryDelayNanos);
+    }
+
+    private void open() {
+        long jitter = (long) (retryDelayNanos * JITTER * (random.getAsDouble() * 2 - 1));
+        long delay = retryDelayNanos + jitter;
+        retryAt = nanoClock.getAsLong() + delay;
+        state = State.OPEN;
+        logger.debug("Twinkly unreachable after {} failures, next probe in {} s", consecutiveFailures,
+                Duration.ofNanos(delay).toSeconds());
+    }
+}
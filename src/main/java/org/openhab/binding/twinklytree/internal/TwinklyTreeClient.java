@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.twinklytree.internal.dto.XledResponse;
+import org.openhab.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * The {@link TwinklyTreeClient} is the xled transport of a single device. It keeps persistent connections to the
+ * device and sends requests asynchronously against endpoint URIs resolved once on creation. Responses are decoded
+ * into typed DTOs straight from the response stream.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeClient {
+
+    private static final String CONTENT_TYPE = "application/x-www-form-urlencoded; charset=UTF-8";
+    private static final String BINARY_CONTENT_TYPE = "application/octet-stream";
+    private static final int BINARY_CHUNK_SIZE = 64 * 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(TwinklyTreeClient.class);
+
+    private final Map<TwinklyTreeEndpoint, URI> endpointURIs = new EnumMap<>(TwinklyTreeEndpoint.class);
+    private final Duration requestTimeout;
+    private final TwinklyTreeCircuitBreaker circuitBreaker;
+    private final TwinklyTreeMetrics metrics;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final Gson gson = new Gson();
+
+    public TwinklyTreeClient(String id, URI baseURI, Duration connectTimeout, Duration requestTimeout,
+            TwinklyTreeCircuitBreaker circuitBreaker, TwinklyTreeMetrics metrics) {
+        for (TwinklyTreeEndpoint endpoint : TwinklyTreeEndpoint.values()) {
+            endpointURIs.put(endpoint, baseURI.resolve(endpoint.getPath()));
+        }
+        this.requestTimeout = requestTimeout;
+        this.circuitBreaker = circuitBreaker;
+        this.metrics = metrics;
+        this.executor = Executors.newCachedThreadPool(new NamedThreadFactory("twinklytree-" + id, true));
+        this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(connectTimeout)
+                .executor(executor).build();
+    }
+
+    /**
+     * Sends a request to the given endpoint. The response is decoded while it is read from the connection.
+     *
+     * @return a future completed with the decoded response, or exceptionally with an {@link IOException}
+     */
+    public <T> CompletableFuture<T> send(TwinklyTreeEndpoint endpoint, String httpMethod, byte @Nullable [] body,
+            @Nullable String token, Class<T> responseType) {
+        return send(endpoint, httpMethod,
+                body != null ? HttpRequest.BodyPublishers.ofByteArray(body) : HttpRequest.BodyPublishers.noBody(),
+                body != null ? CONTENT_TYPE : null, body, token, responseType);
+    }
+
+    /**
+     * Sends binary data to the given endpoint. The data is streamed from the buffer without copying it to the heap.
+     *
+     * @param body the data between the position and the limit of the buffer, which are not changed
+     */
+    public <T> CompletableFuture<T> sendBinary(TwinklyTreeEndpoint endpoint, ByteBuffer body, @Nullable String token,
+            Class<T> responseType) {
+        return send(endpoint, "POST", HttpRequest.BodyPublishers.fromPublisher(new ByteBufferPublisher(body),
+                body.remaining()), BINARY_CONTENT_TYPE, null, token, responseType);
+    }
+
+    private <T> CompletableFuture<T> send(TwinklyTreeEndpoint endpoint, String httpMethod,
+            HttpRequest.BodyPublisher bodyPublisher, @Nullable String contentType, byte @Nullable [] jsonBody,
+            @Nullable String token, Class<T> responseType) {
+        URI uri = endpointURIs.get(endpoint);
+        if (!circuitBreaker.allowRequest()) {
+            return CompletableFuture.failedFuture(new IOException("Twinkly at " + uri + " is unreachable"));
+        }
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(requestTimeout);
+        if (token != null) {
+            builder.header("X-Auth-Token", token);
+        }
+        if (contentType != null) {
+            builder.header("Content-Type", contentType);
+        }
+        builder.method(httpMethod, bodyPublisher);
+        TypeAdapter<T> adapter = gson.getAdapter(responseType);
+
+        long start = System.nanoTime();
+        return httpClient.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofInputStream())
+                .whenComplete((response, exception) -> {
+                    if (exception == null && response.statusCode() < 500) {
+                        circuitBreaker.recordSuccess();
+                    } else {
+                        circuitBreaker.recordFailure();
+                    }
+                }).thenApply(response -> {
+                    try {
+                        T result = decode(response, adapter);
+                        if (logger.isDebugEnabled()) {
+                            String bodyDescription = jsonBody != null ? new String(jsonBody, StandardCharsets.UTF_8)
+                                    : bodyPublisher.contentLength() > 0 ? bodyPublisher.contentLength() + " bytes"
+                                            : null;
+                            logger.debug("Request {} {} {} got response headers {} with data {} ", httpMethod, uri,
+                                    bodyDescription, response.headers().map(), gson.toJson(result));
+                        }
+                        return result;
+                    } catch (IOException e) {
+                        throw new CompletionException(e);
+                    }
+                }).whenComplete((result, exception) -> metrics.recordRequest(endpoint, System.nanoTime() - start,
+                        exception == null));
+    }
+
+    /**
+     * Sends a request and waits for its response.
+     */
+    public <T> T sendAndWait(TwinklyTreeEndpoint endpoint, String httpMethod, byte @Nullable [] body,
+            @Nullable String token, Class<T> responseType) throws IOException {
+        return await(send(endpoint, httpMethod, body, token, responseType));
+    }
+
+    private <T> T decode(HttpResponse<InputStream> response, TypeAdapter<T> adapter) throws IOException {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            if (response.statusCode() / 100 != 2) {
+                throw new TwinklyTreeHttpException("Request " + response.request().method() + " " + response.uri()
+                        + " failed with HTTP status " + response.statusCode(), response.statusCode());
+            }
+            T result = adapter.read(reader);
+            if (result == null) {
+                throw new TwinklyTreeRejectedException("Empty response from " + response.uri());
+            }
+            if (result instanceof XledResponse && ((XledResponse) result).code != XledResponse.CODE_OK) {
+                throw new TwinklyTreeRejectedException("Request " + response.request().method() + " "
+                        + response.uri() + " failed with xled code " + ((XledResponse) result).code);
+            }
+            return result;
+        } catch (JsonParseException | IllegalStateException e) {
+            throw new TwinklyTreeRejectedException("Invalid response from " + response.uri(), e);
+        }
+    }
+
+    public TwinklyTreeMetrics getMetrics() {
+        return metrics;
+    }
+
+    public TwinklyTreeCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Waits for the given future, unwrapping failures into {@link IOException}s.
+     */
+    public static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Twinkly", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    /**
+     * Waits at most the given time for the given future, unwrapping failures into {@link IOException}s.
+     *
+     * @throws TimeoutException if the future has not completed in time, it is left running
+     */
+    public static <T> T await(CompletableFuture<T> future, Duration timeout) throws IOException, TimeoutException {
+        try {
+            return future.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for Twinkly", e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        return new IOException(cause);
+    }
+
+    public void dispose() {
+        httpClient.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Publishes a buffer as a sequence of read-only slices, so the request body is sent straight from the buffer.
+     */
+    private static class ByteBufferPublisher implements Flow.Publisher<ByteBuffer> {
+        private final ByteBuffer buffer;
+
+        ByteBufferPublisher(ByteBuffer buffer) {
+            this.buffer = buffer.asReadOnlyBuffer();
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            ByteBuffer remaining = buffer.duplicate();
+            subscriber.onSubscribe(new Flow.Subscription() {
+                private boolean done;
+
+                @Override
+                public synchronized void request(long n) {
+                    for (long i = 0; i < n && !done; i++) {
+                        if (!remaining.hasRemaining()) {
+                            done = true;
+                            subscriber.onComplete();
+                            return;
+                        }
+                        ByteBuffer chunk = remaining.slice();
+                        chunk.limit(Math.min(BINARY_CHUNK_SIZE, chunk.remaining()));
+                        remaining.position(remaining.position() + chunk.remaining());
+                        subscriber.onNext(chunk);
+                    }
+                    if (!done && !remaining.hasRemaining()) {
+                        done = true;
+                        subscriber.onComplete();
+                    }
+                }
+
+                @Override
+                public synchronized void cancel() {
+                    done = true;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeCommandQueue.DeviceTask;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeCommandQueue.Priority;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link TwinklyTreeCommandCoalescer} keeps at most one pending write per endpoint. A newer write replaces the
+ * pending one, so a burst of slider commands results in only the latest value being sent. Writes are handed to the
+ * {@link TwinklyTreeCommandQueue} at a limited rate and only after the previous batch has been executed, which
+ * guarantees that the final value is always applied.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeCommandCoalescer {
+
+    private final Logger logger = LoggerFactory.getLogger(TwinklyTreeCommandCoalescer.class);
+
+    private final TwinklyTreeCommandQueue commandQueue;
+    private final ScheduledExecutorService scheduler;
+    private final TwinklyTreeMetrics metrics;
+    private final long minIntervalNanos;
+
+    private final Map<TwinklyTreeEndpoint, DeviceTask> pending = new EnumMap<>(TwinklyTreeEndpoint.class);
+    private final Map<TwinklyTreeEndpoint, CompletableFuture<Void>> pendingResults = new EnumMap<>(
+            TwinklyTreeEndpoint.class);
+    private @Nullable ScheduledFuture<?> flushJob;
+    private boolean inFlight;
+    private long lastFlush;
+
+    /**
+     * @param metrics the metrics superseded commands are counted in
+     * @param maxRate maximum number of batches per second sent to the device
+     */
+    public TwinklyTreeCommandCoalescer(TwinklyTreeCommandQueue commandQueue, ScheduledExecutorService scheduler,
+            TwinklyTreeMetrics metrics, int maxRate) {
+        this.commandQueue = commandQueue;
+        this.scheduler = scheduler;
+        this.metrics = metrics;
+        this.minIntervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxRate);
+        this.lastFlush = System.nanoTime() - minIntervalNanos;
+    }
+
+    /**
+     * Queues a write for the given endpoint, replacing a write for the same endpoint that has not been sent yet.
+     *
+     * @return a future completed when the write, or the newer write replacing it, has been executed
+     */
+    public synchronized CompletableFuture<Void> submit(TwinklyTreeEndpoint endpoint, DeviceTask task) {
+        if (pending.put(endpoint, task) != null) {
+            metrics.recordCoalesced();
+            logger.trace("Coalesced superseded {} command, {} coalesced so far", endpoint, metrics.getCoalesced());
+        }
+        CompletableFuture<Void> result = pendingResults.computeIfAbsent(endpoint, e -> new CompletableFuture<>());
+        scheduleFlush();
+        return result;
+    }
+
+    public synchronized void dispose() {
+        ScheduledFuture<?> flushJob = this.flushJob;
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            this.flushJob = null;
+        }
+        pending.clear();
+        for (CompletableFuture<Void> result : pendingResults.values()) {
+            result.completeExceptionally(new IOException("Twinkly command queue is stopped"));
+        }
+        pendingResults.clear();
+    }
+
+    private synchronized void scheduleFlush() {
+        if (inFlight || flushJob != null || pending.isEmpty()) {
+            return;
+        }
+        long delay = Math.max(0, lastFlush + minIntervalNanos - System.nanoTime());
+        flushJob = scheduler.schedule(this::flush, delay, TimeUnit.NANOSECONDS);
+    }
+
+    private void flush() {
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        synchronized (this) {
+            flushJob = null;
+            if (pending.isEmpty()) {
+                return;
+            }
+            inFlight = true;
+            lastFlush = System.nanoTime();
+            for (Map.Entry<TwinklyTreeEndpoint, DeviceTask> entry : pending.entrySet()) {
+                CompletableFuture<Void> result = pendingResults.remove(entry.getKey());
+                CompletableFuture<Void> executed = commandQueue.submit(Priority.WRITE, entry.getValue());
+                if (result != null) {
+                    executed.whenComplete((r, exception) -> {
+                        if (exception != null) {
+                            result.completeExceptionally(exception);
+                        } else {
+                            result.complete(null);
+                        }
+                    });
+                }
+                results.add(executed);
+            }
+            pending.clear();
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).whenComplete((result, exception) -> {
+            synchronized (this) {
+                inFlight = false;
+                scheduleFlush();
+            }
+        });
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link TwinklyTreeCommandQueue} serializes all communication with a single device on its own thread, so a slow
+ * device never blocks callers or other devices. Writes are executed ahead of pending refresh reads, tasks of the same
+ * priority keep their submission order.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeCommandQueue {
+
+    /**
+     * A unit of work executed on the device thread.
+     */
+    @FunctionalInterface
+    public interface DeviceTask {
+        void run() throws IOException;
+    }
+
+    public enum Priority {
+        WRITE,
+        READ
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(TwinklyTreeCommandQueue.class);
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ThreadPoolExecutor executor;
+
+    public TwinklyTreeCommandQueue(String id) {
+        executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(),
+                new NamedThreadFactory("twinklytree-queue-" + id, true));
+    }
+
+    /**
+     * Queues a task for execution on the device thread and returns immediately.
+     *
+     * @return a future completed when the task has run, or exceptionally with the failure of the task
+     */
+    public CompletableFuture<Void> submit(Priority priority, DeviceTask task) {
+        QueuedTask queued = new QueuedTask(priority, sequence.getAndIncrement(), task);
+        try {
+            executor.execute(queued);
+        } catch (RejectedExecutionException e) {
+            queued.result.completeExceptionally(new IOException("Twinkly command queue is stopped", e));
+        }
+        return queued.result;
+    }
+
+    public void dispose() {
+        for (Runnable pending : executor.shutdownNow()) {
+            if (pending instanceof QueuedTask) {
+                ((QueuedTask) pending).result
+                        .completeExceptionally(new IOException("Twinkly command queue is stopped"));
+            }
+        }
+    }
+
+    private class QueuedTask implements Runnable, Comparable<QueuedTask> {
+        private final Priority priority;
+        private final long sequence;
+        private final DeviceTask task;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        QueuedTask(Priority priority, long sequence, DeviceTask task) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+                result.complete(null);
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Twinkly task failed: {}", e.getMessage());
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public int compareTo(QueuedTask other) {
+            int byPriority = priority.compareTo(other.priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -12,11 +12,7 @@
  */
 package org.openhab.binding.twinklytree.internal;
 
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.util.Date;
-
-import org.eclipse.jdt.annotation.Nullable;
+import java.net.URI;
 
 /**
  * The {@link TwinklyTreeConfiguration} class contains fields mapping thing configuration parameters.
@@ -30,10 +26,14 @@ public class TwinklyTreeConfiguration {
      */
     public String host;
     public Integer refresh;
-    protected @Nullable String token;
-    protected Date tokenExpiryDate = new Date();
+    public Integer connectTimeout = 5;
+    public Integer requestTimeout = 10;
+    public Integer maxCommandRate = 10;
+    public Integer stateFreshness = 5;
+    public Integer reconcileInterval = 300;
+    public Integer catalogTtl = 3600;
 
-    public URL getBaseURL() throws MalformedURLException {
-        return new URL("http://" + host);
+    public URI getBaseURI() {
+        return URI.create("http://" + host);
     }
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.twinklytree.internal.dto.LayoutResponse;
+
+/**
+ * The {@link TwinklyTreeEffectRenderer} renders procedural effects from the spatial layout of the LEDs into a
+ * caller-provided frame. Rendering does not allocate and takes well under a millisecond for thousands of LEDs, so
+ * frames are rendered on the realtime sending thread.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeEffectRenderer {
+
+    public enum Effect {
+        /** A rainbow along the height of the tree, slowly rotating through the hues */
+        GRADIENT,
+        /** A band of light sweeping across the tree */
+        SWEEP,
+        /** Smoothly changing colored noise */
+        NOISE,
+        /** Flames rising from the bottom of the tree */
+        FIRE
+    }
+
+    private final int ledCount;
+    private final int bytesPerLed;
+    private final float[] x;
+    private final float[] y;
+    private final float[] z;
+
+    /**
+     * Creates a renderer for the given layout. If the layout does not match the LED count, the LEDs are assumed to
+     * be placed from the bottom to the top of the tree.
+     */
+    public TwinklyTreeEffectRenderer(LayoutResponse layout, int ledCount, int bytesPerLed) {
+        if (ledCount <= 0 || bytesPerLed < 3) {
+            throw new IllegalArgumentException("Invalid LED count " + ledCount + " or bytes per LED " + bytesPerLed);
+        }
+        this.ledCount = ledCount;
+        this.bytesPerLed = bytesPerLed;
+        if (layout.size() == ledCount) {
+            x = layout.x;
+            y = layout.y;
+            z = layout.z;
+        } else {
+            x = new float[ledCount];
+            y = new float[ledCount];
+            z = new float[ledCount];
+            for (int i = 0; i < ledCount; i++) {
+                y[i] = ledCount > 1 ? (float) i / (ledCount - 1) : 0;
+            }
+        }
+    }
+
+    public int getLedCount() {
+        return ledCount;
+    }
+
+    public int getFrameSize() {
+        return ledCount * bytesPerLed;
+    }
+
+    /**
+     * Renders the effect at the given time into the given frame.
+     *
+     * @param time the time in seconds since the effect started
+     * @param frame the buffer of at least {@link #getFrameSize()} bytes to write the RGB (or RGBW) bytes to
+     */
+    public void render(Effect effect, float time, byte[] frame) {
+        if (frame.length < getFrameSize()) {
+            throw new IllegalArgumentException("Frame needs " + getFrameSize() + " bytes but has " + frame.length);
+        }
+        switch (effect) {
+            case GRADIENT:
+                for (int i = 0; i < ledCount; i++) {
+                    putHsv(frame, i, y[i] + time * 0.1f, 1, 1);
+                }
+                break;
+            case SWEEP:
+                float position = 1.5f * (float) Math.sin(time * 1.5f);
+                float hue = time * 0.05f;
+                for (int i = 0; i < ledCount; i++) {
+                    float distance = Math.abs(x[i] - position);
+                    putHsv(frame, i, hue, 1, Math.max(0, 1 - distance * 2.5f));
+                }
+                break;
+            case NOISE:
+                for (int i = 0; i < ledCount; i++) {
+                    float n = noise(x[i] * 2, y[i] * 2 + time * 0.3f, z[i] * 2 + time * 0.2f);
+                    putHsv(frame, i, n + time * 0.05f, 1, 0.3f + 0.7f * n);
+                }
+                break;
+            case FIRE:
+                for (int i = 0; i < ledCount; i++) {
+                    float n = noise(x[i] * 3, y[i] * 4 - time * 2, z[i] * 3 + time * 0.5f);
+                    float heat = Math.max(0, Math.min(1, (1 - y[i]) * 1.4f * n));
+                    put(frame, i, Math.min(1, heat * 3), Math.max(0, Math.min(1, heat * 3 - 1)),
+                            Math.max(0, heat * 3 - 2));
+                }
+                break;
+        }
+    }
+
+    /**
+     * Writes the color of an LED given as hue (wrapping at 1), saturation and value from 0 to 1.
+     */
+    private void putHsv(byte[] frame, int led, float hue, float saturation, float value) {
+        float h = (hue - (float) Math.floor(hue)) * 6;
+        int sector = (int) h;
+        float f = h - sector;
+        float p = value * (1 - saturation);
+        float q = value * (1 - saturation * f);
+        float t = value * (1 - saturation * (1 - f));
+        switch (sector) {
+            case 0:
+                put(frame, led, value, t, p);
+                break;
+            case 1:
+                put(frame, led, q, value, p);
+                break;
+            case 2:
+                put(frame, led, p, value, t);
+                break;
+            case 3:
+                put(frame, led, p, q, value);
+                break;
+            case 4:
+                put(frame, led, t, p, value);
+                break;
+            default:
+                put(frame, led, value, p, q);
+        }
+    }
+
+    /**
+     * Writes the color of an LED given as red, green and blue from 0 to 1. The white channel of RGBW devices is left
+     * off.
+     */
+    private void put(byte[] frame, int led, float red, float green, float blue) {
+        int offset = led * bytesPerLed;
+        frame[offset] = (byte) (red * 255);
+        frame[offset + 1] = (byte) (green * 255);
+        frame[offset + 2] = (byte) (blue * 255);
+    }
+
+    /**
+     * Returns smooth value noise from 0 to 1.
+     */
+    private static float noise(float x, float y, float z) {
+        int x0 = (int) Math.floor(x);
+        int y0 = (int) Math.floor(y);
+        int z0 = (int) Math.floor(z);
+        float fx = fade(x - x0);
+        float fy = fade(y - y0);
+        float fz = fade(z - z0);
+        float x00 = lerp(hash(x0, y0, z0), hash(x0 + 1, y0, z0), fx);
+        float x10 = lerp(hash(x0, y0 + 1, z0), hash(x0 + 1, y0 + 1, z0), fx);
+        float x01 = lerp(hash(x0, y0, z0 + 1), hash(x0 + 1, y0, z0 + 1), fx);
+        float x11 = lerp(hash(x0, y0 + 1, z0 + 1), hash(x0 + 1, y0 + 1, z0 + 1), fx);
+        return lerp(lerp(x00, x10, fy), lerp(x01, x11, fy), fz);
+    }
+
+    private static float hash(int x, int y, int z) {
+        int h = x * 374761393 + y * 668265263 + z * 1274126177;
+        h = (h ^ (h >>> 13)) * 1274126177;
+        return ((h ^ (h >>> 16)) & 0xffffff) / (float) 0xffffff;
+    }
+
+    private static float fade(float t) {
+        return t * t * (3 - 2 * t);
+    }
+
+    private static float lerp(float a, float b, float t) {
+        return a + (b - a) * t;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link TwinklyTreeEndpoint} enumerates the xled REST endpoints used by the binding.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public enum TwinklyTreeEndpoint {
+    LOGIN("/xled/v1/login"),
+    VERIFY("/xled/v1/verify"),
+    LOGOUT("/xled/v1/logout"),
+    GESTALT("/xled/v1/gestalt"),
+    FIRMWARE("/xled/v1/fw/version"),
+    MODE("/xled/v1/led/mode"),
+    BRIGHTNESS("/xled/v1/led/out/brightness"),
+    COLOR("/xled/v1/led/color"),
+    EFFECT("/xled/v1/led/effects/current"),
+    MOVIE("/xled/v1/movies/current"),
+    MOVIES("/xled/v1/movies"),
+    MOVIE_FULL("/xled/v1/led/movie/full"),
+    MOVIE_CONFIG("/xled/v1/led/movie/config"),
+    EFFECTS("/xled/v1/led/effects"),
+    PLAYLIST("/xled/v1/playlist"),
+    LAYOUT("/xled/v1/led/layout/full");
+
+    private final String path;
+
+    TwinklyTreeEndpoint(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+}
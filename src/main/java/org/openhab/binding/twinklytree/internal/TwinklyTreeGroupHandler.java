@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import static org.openhab.binding.twinklytree.internal.TwinklyTreeBindingConstants.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.unit.MetricPrefix;
+import org.openhab.core.library.unit.Units;
+import org.openhab.core.thing.Bridge;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingStatus;
+import org.openhab.core.thing.binding.BaseBridgeHandler;
+import org.openhab.core.thing.binding.ThingHandler;
+import org.openhab.core.types.Command;
+import org.openhab.core.types.RefreshType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link TwinklyTreeGroupHandler} controls a group of Twinkly devices. Commands are fanned out to all member
+ * devices in parallel, each member using its own authenticated session and command coalescing. The latency of every
+ * member is published on the member itself, the latency of the slowest member on the group.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeGroupHandler extends BaseBridgeHandler {
+
+    private final Logger logger = LoggerFactory.getLogger(TwinklyTreeGroupHandler.class);
+
+    private int maxParallel = 8;
+
+    public TwinklyTreeGroupHandler(Bridge bridge) {
+        super(bridge);
+    }
+
+    @Override
+    public void initialize() {
+        TwinklyTreeGroupConfiguration config = getConfigAs(TwinklyTreeGroupConfiguration.class);
+        maxParallel = Math.max(1, config.maxParallel);
+        updateStatus(ThingStatus.ONLINE);
+    }
+
+    @Override
+    public void handleCommand(ChannelUID channelUID, Command command) {
+        if (command instanceof RefreshType || CHANNEL_LATENCY.equals(channelUID.getId())) {
+            return;
+        }
+        List<TwinklyTreeHandler> members = getMembers();
+        logger.debug("Sending command {} to channel {} of {} group members", command, channelUID.getId(),
+                members.size());
+        fanOut(members, channelUID.getId(), command);
+    }
+
+    private List<TwinklyTreeHandler> getMembers() {
+        List<TwinklyTreeHandler> members = new ArrayList<>();
+        for (Thing thing : getThing().getThings()) {
+            ThingHandler handler = thing.getHandler();
+            if (handler instanceof TwinklyTreeHandler) {
+                members.add((TwinklyTreeHandler) handler);
+            }
+        }
+        return members;
+    }
+
+    /**
+     * Sends the command to all members with at most {@link #maxParallel} commands in flight at once.
+     */
+    private CompletableFuture<Void> fanOut(List<TwinklyTreeHandler> members, String channelId, Command command) {
+        Queue<TwinklyTreeHandler> pending = new ConcurrentLinkedQueue<>(members);
+        AtomicLong slowest = new AtomicLong();
+        long start = System.nanoTime();
+        List<CompletableFuture<Void>> lanes = new ArrayList<>();
+        for (int i = 0; i < Math.min(maxParallel, members.size()); i++) {
+            lanes.add(runLane(pending, channelId, command, start, slowest));
+        }
+        return CompletableFuture.allOf(lanes.toArray(CompletableFuture[]::new)).thenRun(() -> {
+            if (isLinked(CHANNEL_LATENCY)) {
+                updateState(CHANNEL_LATENCY, new QuantityType<>(slowest.get(), MetricPrefix.MILLI(Units.SECOND)));
+            }
+        });
+    }
+
+    private CompletableFuture<Void> runLane(Queue<TwinklyTreeHandler> pending, String channelId, Command command,
+            long start, AtomicLong slowest) {
+        TwinklyTreeHandler member = pending.poll();
+        if (member == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return member.applyCommand(channelId, command).handle((result, exception) -> {
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            slowest.accumulateAndGet(latency, Math::max);
+            member.updateGroupLatency(latency);
+            if (exception != null) {
+                logger.debug("Group member {} failed after {} ms: {}", member.getThing().getUID(), latency,
+                        exception.getMessage());
+            } else {
+                logger.debug("Group member {} applied {} after {} ms", member.getThing().getUID(), command, latency);
+            }
+            return (Void) null;
+        }).thenCompose(result -> runLane(pending, channelId, command, start, slowest));
+    }
+}
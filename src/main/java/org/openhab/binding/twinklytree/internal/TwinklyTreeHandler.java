@@ -14,43 +14,73 @@ package org.openhab.binding.twinklytree.internal;
 
 import static org.openhab.binding.twinklytree.internal.TwinklyTreeBindingConstants.*;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.io.Reader;
 import java.math.BigDecimal;
-import java.net.HttpURLConnection;
-import java.net.MalformedURLException;
-import java.net.ProtocolException;
-import java.net.URL;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
-import java.util.Date;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+
+import javax.measure.quantity.Time;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeCommandQueue.DeviceTask;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeCommandQueue.Priority;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeEffectRenderer.Effect;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeMetrics.EndpointMetrics;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeMetrics.Histogram;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeRealtimeStreamer.FrameSource;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeRealtimeStreamer.Protocol;
+import org.openhab.binding.twinklytree.internal.action.TwinklyTreeActions;
+import org.openhab.binding.twinklytree.internal.dto.BrightnessResponse;
+import org.openhab.binding.twinklytree.internal.dto.ColorResponse;
+import org.openhab.binding.twinklytree.internal.dto.EffectResponse;
+import org.openhab.binding.twinklytree.internal.dto.EffectsResponse;
+import org.openhab.binding.twinklytree.internal.dto.FirmwareResponse;
+import org.openhab.binding.twinklytree.internal.dto.GestaltResponse;
+import org.openhab.binding.twinklytree.internal.dto.LayoutResponse;
+import org.openhab.binding.twinklytree.internal.dto.ModeResponse;
+import org.openhab.binding.twinklytree.internal.dto.MovieResponse;
+import org.openhab.binding.twinklytree.internal.dto.MovieUploadResponse;
+import org.openhab.binding.twinklytree.internal.dto.MoviesResponse;
+import org.openhab.binding.twinklytree.internal.dto.PlaylistResponse;
+import org.openhab.binding.twinklytree.internal.dto.XledResponse;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.HSBType;
 import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.PercentType;
-import org.openhab.core.library.types.StringType;
+import org.openhab.core.library.types.QuantityType;
+import org.openhab.core.library.unit.MetricPrefix;
+import org.openhab.core.library.unit.Units;
 import org.openhab.core.thing.Channel;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingStatus;
 import org.openhab.core.thing.ThingStatusDetail;
 import org.openhab.core.thing.binding.BaseThingHandler;
+import org.openhab.core.thing.binding.ThingHandlerService;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.RefreshType;
+import org.openhab.core.types.State;
+import org.openhab.core.types.StateOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-
 /**
  * The {@link TwinklyTreeHandler} is responsible for handling commands, which are
  * sent to one of the channels.
@@ -61,174 +91,747 @@ import com.google.gson.JsonParser;
 @NonNullByDefault
 public class TwinklyTreeHandler extends BaseThingHandler {
 
+    private static final Duration MIN_PROBE_DELAY = Duration.ofSeconds(10);
+    private static final Duration MAX_PROBE_DELAY = Duration.ofMinutes(5);
+    private static final Duration METRICS_INTERVAL = Duration.ofSeconds(10);
+
     private final Logger logger = LoggerFactory.getLogger(TwinklyTreeHandler.class);
 
+    private final TwinklyTreeMetricsRegistry metricsRegistry;
+
+    private final TwinklyTreeStateDescriptionProvider stateDescriptionProvider;
+
     private @Nullable TwinklyTreeConfiguration config;
 
     private @Nullable ScheduledFuture<?> pollingJob;
 
-    public TwinklyTreeHandler(Thing thing) {
+    /**
+     * Incremented on every initialize and dispose, so a poll chain of an earlier lifecycle stops rescheduling itself.
+     */
+    private int pollGeneration;
+
+    private @Nullable ScheduledFuture<?> metricsJob;
+
+    private @Nullable TwinklyTreeClient client;
+
+    private @Nullable TwinklyTreeTokenManager tokenManager;
+
+    private @Nullable TwinklyTreeCommandQueue commandQueue;
+
+    private @Nullable TwinklyTreeCommandCoalescer commandCoalescer;
+
+    private volatile @Nullable TwinklyTreeRealtimeStreamer realtimeStreamer;
+
+    private @Nullable TwinklyTreeMovieEncoder movieEncoder;
+
+    private TwinklyTreeCircuitBreaker circuitBreaker = new TwinklyTreeCircuitBreaker(MIN_PROBE_DELAY,
+            MAX_PROBE_DELAY);
+
+    private TwinklyTreeMetrics metrics = new TwinklyTreeMetrics();
+
+    private final TwinklyTreeStateCache stateCache = new TwinklyTreeStateCache();
+
+    private long nextReconciliation;
+
+    private TwinklyTreeCatalog catalog = new TwinklyTreeCatalog(Duration.ZERO);
+
+    public TwinklyTreeHandler(Thing thing, TwinklyTreeMetricsRegistry metricsRegistry,
+            TwinklyTreeStateDescriptionProvider stateDescriptionProvider) {
         super(thing);
+        this.metricsRegistry = metricsRegistry;
+        this.stateDescriptionProvider = stateDescriptionProvider;
     }
 
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
         logger.debug("Handle command {} with channel {}", command, channelUID);
+        if (TwinklyTreeSnapshot.endpointsFor(channelUID.getId()).isEmpty()) {
+            // diagnostic channels are answered from the metrics, without reaching the device
+            if (command instanceof RefreshType) {
+                updateMetricChannels();
+            }
+        } else if (command instanceof RefreshType || (CHANNEL_MODE.equals(channelUID.getId())
+                && command.toFullString().toUpperCase().equals("REFRESH"))) {
+            submit(Priority.READ, () -> refreshChannels(List.of(channelUID), true));
+        } else {
+            applyCommand(channelUID.getId(), command);
+        }
+    }
+
+    /**
+     * Runs a task on the device thread, taking care of the session and of communication errors.
+     */
+    private void runOnDevice(DeviceTask task) throws IOException {
         try {
-            refreshIfNeeded();
-            switch (channelUID.getId()) {
-                case CHANNEL_SWITCH:
-                    if (command instanceof RefreshType) {
-                        updateState(channelUID, isOn() ? OnOffType.ON : OnOffType.OFF);
-                    } else {
-                        if (OnOffType.OFF.equals(command)) {
-                            setMode("off");
-                            updateState(channelUID, OnOffType.OFF);
-                        } else if (OnOffType.ON.equals(command)) {
-                            setMode("movie");
-                            updateState(channelUID, OnOffType.ON);
-                        } else {
-                            logger.warn("Unexpected command for Twinkly: {}", command);
-                        }
-                    }
-                    break;
-                case CHANNEL_DIMMER:
-                    if (command instanceof RefreshType) {
-                        if (isOn()) {
-                            updateState(channelUID, new PercentType(getBrightness()));
-                        } else {
-                            updateState(channelUID, PercentType.ZERO);
-                        }
-                    } else {
-                        PercentType type = (PercentType) command;
-                        setBrightness(type.intValue());
-                    }
-                    break;
-                case CHANNEL_MODE:
-                    if (command instanceof RefreshType || command.toFullString().toUpperCase().equals("REFRESH")) {
-                        updateState(channelUID, new StringType(getMode()));
-                    } else {
-                        setMode(command.toFullString());
-                    }
-                    break;
-                case CHANNEL_CURRENT_EFFECT:
-                    if (command instanceof RefreshType) {
-                        updateState(channelUID, new DecimalType(getCurrentEffect()));
-                    } else {
-                        DecimalType type = (DecimalType) command;
-                        setCurrentEffect(type.intValue());
-                    }
-                    break;
-                case CHANNEL_CURRENT_MOVIE:
-                    if (command instanceof RefreshType) {
-                        updateState(channelUID, new DecimalType(getCurrentMovie()));
-                    } else {
-                        DecimalType type = (DecimalType) command;
-                        setCurrentMovie(type.intValue());
-                    }
-                    break;
-                case CHANNEL_COLOR:
-                    if (command instanceof RefreshType) {
-                        updateState(channelUID, getColor());
-                    } else {
-                        HSBType color = (HSBType) command;
-                        setColor(color);
-                    }
-                    break;
+            task.run();
+            if (getThing().getStatus() != ThingStatus.ONLINE) {
+                updateStatus(ThingStatus.ONLINE);
             }
         } catch (IOException e) {
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
-                    "Could not control device at IP address " + config.host);
-            logger.error("Error communicating with Twinkly"/* , e */);
-            config.token = null;
+            if (isOutage(e)) {
+                handleCommunicationError(e);
+            } else {
+                logger.warn("Twinkly rejected the request: {}", e.getMessage());
+            }
+            throw e;
         }
     }
 
-    private boolean isOn() throws IOException, ProtocolException, MalformedURLException {
-        return !"off".equalsIgnoreCase(getMode());
+    /**
+     * Returns whether the error means the device cannot be reached, rather than that it refused a request.
+     */
+    private static boolean isOutage(IOException e) {
+        if (e instanceof TwinklyTreeRejectedException) {
+            return false;
+        } else if (e instanceof TwinklyTreeHttpException) {
+            return ((TwinklyTreeHttpException) e).isServerError();
+        }
+        return true;
     }
 
-    private HSBType getColor() throws IOException, ProtocolException, MalformedURLException {
-        JsonObject response = sendRequest(new URL(config.getBaseURL(), "/xled/v1/led/color"), "GET", null,
-                config.token);
-        return new HSBType(new DecimalType(response.get("hue").getAsInt()),
-                new PercentType(new BigDecimal((response.get("saturation").getAsInt()) / 2.55)),
-                new PercentType(new BigDecimal((response.get("value").getAsInt()) / 2.55)));
+    /**
+     * Applies a command to a channel of this device, also used by the group bridge to fan out commands. Dimmer and
+     * color commands are coalesced, so a newer command may replace one that has not been sent yet.
+     *
+     * @return a future completed when the device has executed the command, or the newer command replacing it
+     */
+    public CompletableFuture<Void> applyCommand(String channelId, Command command) {
+        ChannelUID channelUID = new ChannelUID(getThing().getUID(), channelId);
+        TwinklyTreeCommandCoalescer commandCoalescer = this.commandCoalescer;
+        if (commandCoalescer != null && CHANNEL_DIMMER.equals(channelId)) {
+            return commandCoalescer.submit(TwinklyTreeEndpoint.BRIGHTNESS,
+                    () -> runOnDevice(() -> executeCommand(channelUID, command)));
+        } else if (commandCoalescer != null && CHANNEL_COLOR.equals(channelId)) {
+            return commandCoalescer.submit(TwinklyTreeEndpoint.COLOR,
+                    () -> runOnDevice(() -> executeCommand(channelUID, command)));
+        }
+        return submit(Priority.WRITE, () -> executeCommand(channelUID, command));
+    }
+
+    /**
+     * Publishes the time this device took to apply the last command sent to its group.
+     */
+    public void updateGroupLatency(long latencyMillis) {
+        if (isLinked(CHANNEL_LATENCY)) {
+            updateState(CHANNEL_LATENCY, new QuantityType<>(latencyMillis, MetricPrefix.MILLI(Units.SECOND)));
+        }
     }
 
-    private void setColor(HSBType color) throws IOException, ProtocolException, MalformedURLException {
-        sendRequest(new URL(config.getBaseURL(), "/xled/v1/led/color"), "POST",
-                "{\"hue\":" + color.getHue().intValue() + ",\"saturation\":"
-                        + Math.round(color.getSaturation().floatValue() * 2.55) + ",\"value\":"
-                        + Math.round(color.getBrightness().floatValue() * 2.55) + "}",
-                config.token);
+    private void executeCommand(ChannelUID channelUID, Command command) throws IOException {
+        switch (channelUID.getId()) {
+            case CHANNEL_SWITCH:
+                if (OnOffType.OFF.equals(command)) {
+                    setMode("off");
+                } else if (OnOffType.ON.equals(command)) {
+                    setMode("movie");
+                } else {
+                    logger.warn("Unexpected command for Twinkly: {}", command);
+                }
+                break;
+            case CHANNEL_DIMMER:
+                PercentType brightness = (PercentType) command;
+                setBrightness(brightness.intValue());
+                break;
+            case CHANNEL_MODE:
+                setMode(command.toFullString());
+                break;
+            case CHANNEL_CURRENT_EFFECT:
+                DecimalType effect = (DecimalType) command;
+                setCurrentEffect(effect.intValue());
+                break;
+            case CHANNEL_CURRENT_MOVIE:
+                DecimalType movie = (DecimalType) command;
+                setCurrentMovie(movie.intValue());
+                break;
+            case CHANNEL_COLOR:
+                HSBType color = (HSBType) command;
+                setColor(color);
+                break;
+        }
     }
 
-    private String getMode() throws IOException, ProtocolException, MalformedURLException {
-        JsonObject getModeResponse = sendRequest(new URL(config.getBaseURL(), "/xled/v1/led/mode"), "GET", null,
-                config.token);
-        String mode = getModeResponse.get("mode").getAsString();
-        return mode;
+    private void handleCommunicationError(IOException e) {
+        if (getThing().getStatus() != ThingStatus.OFFLINE) {
+            logger.error("Error communicating with Twinkly: {}", e.getMessage());
+        } else {
+            logger.debug("Error communicating with Twinkly: {}", e.getMessage());
+        }
+        stateCache.clear();
+        updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
+                "Could not control device at IP address " + config.host);
     }
 
-    private void setMode(String newMode) throws IOException, ProtocolException, MalformedURLException {
-        sendRequest(new URL(config.getBaseURL(), "/xled/v1/led/mode"), "POST", "{\"mode\":\"" + newMode + "\"}",
-                config.token);
+    /**
+     * Reads every endpoint required by the given channels once and updates the channels from the resulting snapshot.
+     *
+     * @param force whether to read endpoints whose cached value is still fresh
+     */
+    private void refreshChannels(Collection<ChannelUID> channels, boolean force) throws IOException {
+        Set<TwinklyTreeEndpoint> endpoints = EnumSet.noneOf(TwinklyTreeEndpoint.class);
+        for (ChannelUID channel : channels) {
+            endpoints.addAll(TwinklyTreeSnapshot.endpointsFor(channel.getId()));
+        }
+        if (endpoints.isEmpty()) {
+            return;
+        }
+        TwinklyTreeSnapshot snapshot = fetchSnapshot(endpoints, force);
+        for (ChannelUID channel : channels) {
+            State state = snapshot.stateFor(channel.getId());
+            if (state != null) {
+                updateState(channel, state);
+            }
+        }
     }
 
-    private void setBrightness(int brightness) throws IOException, ProtocolException, MalformedURLException {
-        sendRequest(new URL(config.getBaseURL(), "/xled/v1/led/out/brightness"), "POST",
-                "{\"mode\":\"enabled\",\"type\":\"A\",\"value\":" + brightness + "}", config.token);
+    /**
+     * Reads the given endpoints into the state cache with concurrent requests, skipping those confirmed within the
+     * freshness window unless forced.
+     */
+    private TwinklyTreeSnapshot fetchSnapshot(Set<TwinklyTreeEndpoint> endpoints, boolean force) throws IOException {
+        Duration freshness = force ? Duration.ZERO : Duration.ofSeconds(config.stateFreshness);
+        Map<TwinklyTreeEndpoint, CompletableFuture<?>> reads = new EnumMap<>(TwinklyTreeEndpoint.class);
+        for (TwinklyTreeEndpoint endpoint : endpoints) {
+            if (stateCache.isFresh(endpoint, freshness)) {
+                logger.trace("Skipping read of {}, cached value is fresh", endpoint.getPath());
+            } else {
+                reads.put(endpoint, read(endpoint));
+            }
+        }
+        for (Map.Entry<TwinklyTreeEndpoint, CompletableFuture<?>> read : reads.entrySet()) {
+            stateCache.confirm(read.getKey(), TwinklyTreeClient.await(read.getValue()));
+        }
+        return stateCache.toSnapshot();
     }
 
-    private int getBrightness() throws IOException, ProtocolException, MalformedURLException {
-        JsonObject getModeResponse = sendRequest(new URL(config.getBaseURL(), "/xled/v1/led/out/brightness"), "GET",
-                null, config.token);
-        return getModeResponse.get("value").getAsInt();
+    private CompletableFuture<?> read(TwinklyTreeEndpoint endpoint) {
+        switch (endpoint) {
+            case MODE:
+                return getMode();
+            case BRIGHTNESS:
+                return getBrightness();
+            case COLOR:
+                return getColor();
+            case EFFECT:
+                return getCurrentEffect();
+            case MOVIE:
+                return getCurrentMovie();
+            default:
+                throw new IllegalArgumentException("No state at " + endpoint.getPath());
+        }
     }
 
-    private int getCurrentEffect() throws IOException, ProtocolException, MalformedURLException {
-        JsonObject response = sendRequest(new URL(config.getBaseURL(), "/xled/v1/led/effects/current"), "GET", null,
-                config.token);
-        if (response.has("preset_id")) {
-            return response.get("preset_id").getAsInt();
-        } else {
-            return response.get("effect_id").getAsInt();
+    /**
+     * Stores a value the device has accepted and updates all linked channels that depend on it.
+     */
+    private void confirmWrite(TwinklyTreeEndpoint endpoint, Object value) {
+        stateCache.confirm(endpoint, value);
+        TwinklyTreeSnapshot snapshot = stateCache.toSnapshot();
+        for (Channel channel : getThing().getChannels()) {
+            String channelId = channel.getUID().getId();
+            if (TwinklyTreeSnapshot.endpointsFor(channelId).contains(endpoint) && isLinked(channel.getUID())) {
+                State state = snapshot.stateFor(channelId);
+                if (state != null) {
+                    updateState(channel.getUID(), state);
+                }
+            }
         }
     }
 
-    private void setCurrentEffect(int currentEffect) throws IOException, ProtocolException, MalformedURLException {
-        sendRequest(new URL(config.getBaseURL(), "/xled/v1/led/effects/current"), "POST",
-                "{\"preset_id\":\"" + currentEffect + "\",\"effect_id\":\"" + currentEffect + "\"}", config.token);
+    private CompletableFuture<HSBType> getColor() {
+        return sendRequestAsync(TwinklyTreeEndpoint.COLOR, "GET", null, ColorResponse.class)
+                .thenApply(TwinklyTreeHandler::toHSBType);
     }
 
-    private int getCurrentMovie() throws IOException, ProtocolException, MalformedURLException {
-        JsonObject response = sendRequest(new URL(config.getBaseURL(), "/xled/v1/movies/current"), "GET", null,
-                config.token);
-        return response.get("id").getAsInt();
+    private void setColor(HSBType color) throws IOException {
+        sendRequest(TwinklyTreeEndpoint.COLOR, "POST", toColorRequest(color));
+        confirmWrite(TwinklyTreeEndpoint.COLOR, color);
     }
 
-    private void setCurrentMovie(int currentMovie) throws IOException, ProtocolException, MalformedURLException {
-        sendRequest(new URL(config.getBaseURL(), "/xled/v1/movies/current"), "POST", "{\"id\":" + currentMovie + "}",
-                config.token);
+    /**
+     * Converts the device color with saturation and value from 0 to 255 into an {@link HSBType}.
+     */
+    static HSBType toHSBType(ColorResponse response) {
+        return new HSBType(new DecimalType(response.hue), new PercentType(new BigDecimal(response.saturation / 2.55)),
+                new PercentType(new BigDecimal(response.value / 2.55)));
     }
 
-    private void logout() {
-        updateStatus(ThingStatus.OFFLINE);
-        try {
-            sendRequest(new URL(config.getBaseURL(), "/xled/v1/logout"), "POST", "{}", config.token);
-        } catch (IOException e) {
-            logger.debug("Error while logout", e);
+    static byte[] toColorRequest(HSBType color) {
+        return TwinklyTreeRequests.color(color.getHue().intValue(),
+                Math.round(color.getSaturation().floatValue() * 2.55f),
+                Math.round(color.getBrightness().floatValue() * 2.55f));
+    }
+
+    private CompletableFuture<String> getMode() {
+        return sendRequestAsync(TwinklyTreeEndpoint.MODE, "GET", null, ModeResponse.class)
+                .thenApply(response -> response.mode);
+    }
+
+    private void setMode(String newMode) throws IOException {
+        sendRequest(TwinklyTreeEndpoint.MODE, "POST", TwinklyTreeRequests.mode(newMode));
+        confirmWrite(TwinklyTreeEndpoint.MODE, newMode);
+        if (!MODE_RT.equals(newMode)) {
+            stopStreaming();
+        }
+    }
+
+    private void setBrightness(int brightness) throws IOException {
+        sendRequest(TwinklyTreeEndpoint.BRIGHTNESS, "POST", TwinklyTreeRequests.brightness(brightness));
+        confirmWrite(TwinklyTreeEndpoint.BRIGHTNESS, brightness);
+    }
+
+    private CompletableFuture<Integer> getBrightness() {
+        return sendRequestAsync(TwinklyTreeEndpoint.BRIGHTNESS, "GET", null, BrightnessResponse.class)
+                .thenApply(response -> response.value);
+    }
+
+    private CompletableFuture<Integer> getCurrentEffect() {
+        return sendRequestAsync(TwinklyTreeEndpoint.EFFECT, "GET", null, EffectResponse.class)
+                .thenCompose(response -> {
+                    Integer presetId = response.presetId;
+                    Integer effectId = response.effectId;
+                    if (presetId != null) {
+                        return CompletableFuture.completedFuture(presetId);
+                    } else if (effectId != null) {
+                        return CompletableFuture.completedFuture(effectId);
+                    }
+                    return CompletableFuture.failedFuture(
+                            new TwinklyTreeRejectedException("Twinkly did not report the current effect"));
+                });
+    }
+
+    private void setCurrentEffect(int currentEffect) throws IOException {
+        sendRequest(TwinklyTreeEndpoint.EFFECT, "POST", TwinklyTreeRequests.effect(currentEffect));
+        confirmWrite(TwinklyTreeEndpoint.EFFECT, currentEffect);
+    }
+
+    private CompletableFuture<Integer> getCurrentMovie() {
+        return sendRequestAsync(TwinklyTreeEndpoint.MOVIE, "GET", null, MovieResponse.class)
+                .thenApply(response -> response.id);
+    }
+
+    private void setCurrentMovie(int currentMovie) throws IOException {
+        sendRequest(TwinklyTreeEndpoint.MOVIE, "POST", TwinklyTreeRequests.movie(currentMovie));
+        confirmWrite(TwinklyTreeEndpoint.MOVIE, currentMovie);
+    }
+
+    /**
+     * Loads the expired entries of the catalog. Loading an entry updates the thing properties or channel options
+     * derived from it.
+     */
+    private void refreshCatalog() throws IOException {
+        catalog.get(TwinklyTreeEndpoint.GESTALT, GestaltResponse.class, this::loadGestalt);
+        catalog.get(TwinklyTreeEndpoint.FIRMWARE, FirmwareResponse.class, this::loadFirmware);
+        catalog.get(TwinklyTreeEndpoint.MOVIES, MoviesResponse.class, this::loadMovies);
+        catalog.get(TwinklyTreeEndpoint.EFFECTS, EffectsResponse.class, this::loadEffects);
+        catalog.get(TwinklyTreeEndpoint.PLAYLIST, PlaylistResponse.class, this::loadPlaylist);
+    }
+
+    private GestaltResponse loadGestalt() throws IOException {
+        GestaltResponse gestalt = sendRequest(TwinklyTreeEndpoint.GESTALT, "GET", null, GestaltResponse.class);
+        Map<String, String> properties = editProperties();
+        properties.put(Thing.PROPERTY_MAC_ADDRESS, gestalt.mac);
+        properties.put(Thing.PROPERTY_MODEL_ID, gestalt.productCode);
+        properties.put(Thing.PROPERTY_HARDWARE_VERSION, gestalt.hardwareId);
+        properties.put(PROPERTY_LED_COUNT, String.valueOf(gestalt.numberOfLed));
+        updateProperties(properties);
+        return gestalt;
+    }
+
+    private FirmwareResponse loadFirmware() throws IOException {
+        FirmwareResponse firmware = sendRequest(TwinklyTreeEndpoint.FIRMWARE, "GET", null, FirmwareResponse.class);
+        updateProperty(Thing.PROPERTY_FIRMWARE_VERSION, firmware.version);
+        return firmware;
+    }
+
+    private MoviesResponse loadMovies() throws IOException {
+        MoviesResponse movies = sendOptionalRequest(TwinklyTreeEndpoint.MOVIES, MoviesResponse.class);
+        if (movies == null) {
+            movies = new MoviesResponse();
+        }
+        List<StateOption> options = new ArrayList<>();
+        for (MoviesResponse.Movie movie : movies.movies) {
+            options.add(new StateOption(String.valueOf(movie.id), movie.name));
+        }
+        stateDescriptionProvider.setStateOptions(new ChannelUID(getThing().getUID(), CHANNEL_CURRENT_MOVIE), options);
+        return movies;
+    }
+
+    private EffectsResponse loadEffects() throws IOException {
+        EffectsResponse effects = sendOptionalRequest(TwinklyTreeEndpoint.EFFECTS, EffectsResponse.class);
+        if (effects == null) {
+            effects = new EffectsResponse();
+        }
+        List<StateOption> options = new ArrayList<>();
+        for (int i = 0; i < effects.effectsNumber; i++) {
+            options.add(new StateOption(String.valueOf(i), "Effect " + (i + 1)));
+        }
+        stateDescriptionProvider.setStateOptions(new ChannelUID(getThing().getUID(), CHANNEL_CURRENT_EFFECT),
+                options);
+        return effects;
+    }
+
+    private PlaylistResponse loadPlaylist() throws IOException {
+        PlaylistResponse playlist = sendOptionalRequest(TwinklyTreeEndpoint.PLAYLIST, PlaylistResponse.class);
+        return playlist != null ? playlist : new PlaylistResponse();
+    }
+
+    /**
+     * Loads the position of every LED. The layout is only needed for effects, so it is not part of the catalog
+     * refresh. Without a layout, effects are rendered along the string of LEDs.
+     */
+    private LayoutResponse loadLayout() throws IOException {
+        LayoutResponse layout = sendOptionalRequest(TwinklyTreeEndpoint.LAYOUT, LayoutResponse.class);
+        if (layout == null) {
+            return new LayoutResponse();
+        }
+        logger.debug("Loaded {} layout of {} LEDs", layout.source, layout.size());
+        return layout;
+    }
+
+    /**
+     * Returns the names of the movies stored on the device by id, as last read from the device.
+     */
+    public Map<Integer, String> getMovieNames() {
+        Map<Integer, String> names = new LinkedHashMap<>();
+        MoviesResponse movies = catalog.getCached(TwinklyTreeEndpoint.MOVIES, MoviesResponse.class);
+        if (movies != null) {
+            movies.movies.forEach(movie -> names.put(movie.id, movie.name));
+        }
+        return names;
+    }
+
+    /**
+     * Returns the names of the built-in effects by id, as last read from the device.
+     */
+    public Map<Integer, String> getEffectNames() {
+        Map<Integer, String> names = new LinkedHashMap<>();
+        EffectsResponse effects = catalog.getCached(TwinklyTreeEndpoint.EFFECTS, EffectsResponse.class);
+        if (effects != null) {
+            for (int i = 0; i < effects.effectsNumber; i++) {
+                names.put(i, "Effect " + (i + 1));
+            }
         }
+        return names;
+    }
+
+    /**
+     * Returns the names of the playlist entries by id, as last read from the device.
+     */
+    public Map<Integer, String> getPlaylistNames() {
+        Map<Integer, String> names = new LinkedHashMap<>();
+        PlaylistResponse playlist = catalog.getCached(TwinklyTreeEndpoint.PLAYLIST, PlaylistResponse.class);
+        if (playlist != null) {
+            playlist.entries.forEach(entry -> names.put(entry.id, entry.name));
+        }
+        return names;
+    }
+
+    /**
+     * Returns the configured timeout of a single request to the device.
+     */
+    public Duration getRequestTimeout() {
+        return Duration.ofSeconds(config.requestTimeout);
     }
 
-    private synchronized void refreshIfNeeded() {
-        if (config.token == null || isTokenExpired()) {
-            if (config.token != null) {
-                logout();
+    /**
+     * Reads the full state of the device with concurrent requests, to be put back later with
+     * {@link #restoreScene(TwinklyTreeSnapshot)}. The read is queued with the writes, so it is taken before any
+     * command sent after it.
+     */
+    public CompletableFuture<TwinklyTreeSnapshot> snapshotScene() {
+        AtomicReference<TwinklyTreeSnapshot> scene = new AtomicReference<>();
+        return submit(Priority.WRITE,
+                () -> scene.set(fetchSnapshot(EnumSet.copyOf(TwinklyTreeSnapshot.ENDPOINTS), true)))
+                .thenApply(result -> scene.get());
+    }
+
+    /**
+     * Puts back a scene taken with {@link #snapshotScene()}. The current state is read from the device, as changes
+     * made in the Twinkly app are not in the cache, and only the values that differ are written, see
+     * {@link #applyBatch(TwinklyTreeSnapshot)}.
+     */
+    public CompletableFuture<TwinklyTreeBatchResult> restoreScene(TwinklyTreeSnapshot scene) {
+        long start = System.nanoTime();
+        AtomicReference<TwinklyTreeBatchResult> result = new AtomicReference<>();
+        return submit(Priority.WRITE, () -> {
+            TwinklyTreeSnapshot current = fetchSnapshot(EnumSet.copyOf(TwinklyTreeSnapshot.ENDPOINTS), true);
+            List<TwinklyTreeEndpoint> changed = scene.diff(current);
+            logger.debug("Restoring {} of scene {}", changed, scene);
+            result.set(write(scene, changed, start));
+        }).thenApply(v -> result.get());
+    }
+
+    /**
+     * Writes all values of the batch as one task with a single session: the content concurrently, then the mode, so
+     * the device does not show intermediate states. The mode is skipped if any content was rejected. Rejected values
+     * are reported in the result, communication errors fail the returned future.
+     */
+    public CompletableFuture<TwinklyTreeBatchResult> applyBatch(TwinklyTreeSnapshot batch) {
+        long start = System.nanoTime();
+        AtomicReference<TwinklyTreeBatchResult> result = new AtomicReference<>();
+        return submit(Priority.WRITE, () -> {
+            List<TwinklyTreeEndpoint> endpoints = new ArrayList<>();
+            for (TwinklyTreeEndpoint endpoint : TwinklyTreeSnapshot.ENDPOINTS) {
+                if (batch.get(endpoint) != null) {
+                    endpoints.add(endpoint);
+                }
+            }
+            result.set(write(batch, endpoints, start));
+        }).thenApply(v -> result.get());
+    }
+
+    private TwinklyTreeBatchResult write(TwinklyTreeSnapshot values, List<TwinklyTreeEndpoint> endpoints, long start)
+            throws IOException {
+        Map<TwinklyTreeEndpoint, CompletableFuture<XledResponse>> writes = new EnumMap<>(TwinklyTreeEndpoint.class);
+        for (TwinklyTreeEndpoint endpoint : endpoints) {
+            Object value = values.get(endpoint);
+            if (endpoint != TwinklyTreeEndpoint.MODE && value != null) {
+                writes.put(endpoint,
+                        sendRequestAsync(endpoint, "POST", toRequest(endpoint, value), XledResponse.class));
+            }
+        }
+        TwinklyTreeBatchResult result = new TwinklyTreeBatchResult();
+        for (TwinklyTreeEndpoint endpoint : endpoints) {
+            CompletableFuture<XledResponse> write = writes.get(endpoint);
+            Object value = values.get(endpoint);
+            if (write == null || value == null) {
+                continue;
+            }
+            try {
+                TwinklyTreeClient.await(write);
+                confirmWrite(endpoint, value);
+                result.put(endpoint, TwinklyTreeBatchResult.OK);
+            } catch (IOException e) {
+                if (isOutage(e)) {
+                    throw e;
+                }
+                logger.debug("Twinkly rejected {} for {}: {}", value, endpoint.getPath(), e.getMessage());
+                result.put(endpoint, String.valueOf(e.getMessage()));
+            }
+        }
+        String mode = values.getMode();
+        if (mode != null && endpoints.contains(TwinklyTreeEndpoint.MODE)) {
+            if (!result.isSuccess()) {
+                result.put(TwinklyTreeEndpoint.MODE, TwinklyTreeBatchResult.SKIPPED);
+            } else {
+                try {
+                    setMode(mode);
+                    result.put(TwinklyTreeEndpoint.MODE, TwinklyTreeBatchResult.OK);
+                } catch (IOException e) {
+                    if (isOutage(e)) {
+                        throw e;
+                    }
+                    result.put(TwinklyTreeEndpoint.MODE, String.valueOf(e.getMessage()));
+                }
             }
-            login();
         }
+        result.setLatency(Duration.ofNanos(System.nanoTime() - start));
+        return result;
+    }
+
+    private static byte[] toRequest(TwinklyTreeEndpoint endpoint, Object value) {
+        switch (endpoint) {
+            case MODE:
+                return TwinklyTreeRequests.mode((String) value);
+            case BRIGHTNESS:
+                return TwinklyTreeRequests.brightness((Integer) value);
+            case COLOR:
+                return toColorRequest((HSBType) value);
+            case EFFECT:
+                return TwinklyTreeRequests.effect((Integer) value);
+            case MOVIE:
+                return TwinklyTreeRequests.movie((Integer) value);
+            default:
+                throw new IllegalArgumentException("No state at " + endpoint.getPath());
+        }
+    }
+
+    /**
+     * Switches the device to realtime mode and starts streaming frames at the given rate.
+     */
+    public CompletableFuture<Void> startRealtime(int fps) {
+        return submit(Priority.WRITE, () -> startStreaming(fps, null));
+    }
+
+    /**
+     * Starts streaming, with frames rendered by the given source or, without a source, submitted frames.
+     */
+    private void startStreaming(int fps, @Nullable FrameSource frameSource) throws IOException {
+        TwinklyTreeRealtimeStreamer realtimeStreamer = this.realtimeStreamer;
+        if (realtimeStreamer == null) {
+            GestaltResponse gestalt = catalog.get(TwinklyTreeEndpoint.GESTALT, GestaltResponse.class,
+                    this::loadGestalt);
+            FirmwareResponse firmware = catalog.get(TwinklyTreeEndpoint.FIRMWARE, FirmwareResponse.class,
+                    this::loadFirmware);
+            int ledCount = gestalt.numberOfLed;
+            int bytesPerLed = gestalt.bytesPerLed;
+            Protocol protocol = Protocol.forFirmware(firmware.version, ledCount);
+            logger.debug("Starting realtime streaming for {} LEDs with protocol {}", ledCount, protocol);
+            realtimeStreamer = new TwinklyTreeRealtimeStreamer(getThing().getUID().getId(),
+                    new InetSocketAddress(config.host, TwinklyTreeRealtimeStreamer.DEFAULT_PORT), protocol, ledCount,
+                    bytesPerLed);
+            synchronized (this) {
+                if (commandQueue == null) {
+                    // disposed while the device was queried, the streamer must not outlive the handler
+                    realtimeStreamer.dispose();
+                    throw new IOException("Twinkly handler is disposed");
+                }
+                this.realtimeStreamer = realtimeStreamer;
+            }
+        }
+        TwinklyTreeTokenManager tokenManager = this.tokenManager;
+        String token = tokenManager != null ? tokenManager.getCurrentToken() : null;
+        if (token != null) {
+            realtimeStreamer.setToken(token);
+        }
+        setMode(MODE_RT);
+        realtimeStreamer.setFrameSource(frameSource);
+        realtimeStreamer.start(fps);
+    }
+
+    /**
+     * Hands in a frame of {@link TwinklyTreeRealtimeStreamer#getFrameSize()} bytes to be streamed to the device.
+     */
+    public void sendRealtimeFrame(byte[] frame) {
+        TwinklyTreeRealtimeStreamer realtimeStreamer = this.realtimeStreamer;
+        if (realtimeStreamer == null || !realtimeStreamer.isRunning()) {
+            throw new IllegalStateException("Realtime streaming is not started");
+        }
+        realtimeStreamer.submitFrame(frame);
+    }
+
+    /**
+     * Stops streaming after all commands queued before, so a preceding start is not left running.
+     */
+    public CompletableFuture<Void> stopRealtime() {
+        return submit(Priority.WRITE, this::stopStreaming);
+    }
+
+    private void stopStreaming() {
+        stopRendering();
+        TwinklyTreeRealtimeStreamer realtimeStreamer = this.realtimeStreamer;
+        if (realtimeStreamer != null) {
+            realtimeStreamer.stop();
+        }
+    }
+
+    /**
+     * Uploads frames of {@link TwinklyTreeMovieEncoder#getFrameSize()} bytes as the movie of the device and plays it.
+     *
+     * @param frameDelay the time each frame is shown in milliseconds
+     */
+    public CompletableFuture<Void> uploadMovie(List<byte[]> frames, int frameDelay) {
+        return submit(Priority.WRITE, () -> {
+            TwinklyTreeMovieEncoder movieEncoder = getMovieEncoder();
+            movieEncoder.begin(frames.size());
+            for (byte[] frame : frames) {
+                movieEncoder.addFrame(frame);
+            }
+            uploadMovie(movieEncoder, frameDelay);
+        });
+    }
+
+    /**
+     * Uploads a file of raw frames as the movie of the device and plays it.
+     *
+     * @param frameDelay the time each frame is shown in milliseconds
+     */
+    public CompletableFuture<Void> uploadMovie(Path file, int frameDelay) {
+        return submit(Priority.WRITE, () -> {
+            TwinklyTreeMovieEncoder movieEncoder = getMovieEncoder();
+            movieEncoder.readFile(file);
+            uploadMovie(movieEncoder, frameDelay);
+        });
+    }
+
+    /**
+     * Starts streaming a procedural effect rendered from the LED layout at the given rate.
+     */
+    public CompletableFuture<Void> startEffect(Effect effect, int fps) {
+        return submit(Priority.WRITE, () -> {
+            TwinklyTreeEffectRenderer renderer = createRenderer();
+            long start = System.nanoTime();
+            logger.debug("Starting effect {} for {} LEDs at {} fps", effect, renderer.getLedCount(), fps);
+            startStreaming(fps, frame -> renderer.render(effect, (System.nanoTime() - start) / 1e9f, frame));
+        });
+    }
+
+    /**
+     * Stops rendering the current effect after all commands queued before. Realtime streaming keeps running with the
+     * last frame until it is stopped or the mode changes.
+     */
+    public CompletableFuture<Void> stopEffect() {
+        return submit(Priority.WRITE, this::stopRendering);
+    }
+
+    private void stopRendering() {
+        TwinklyTreeRealtimeStreamer realtimeStreamer = this.realtimeStreamer;
+        if (realtimeStreamer != null) {
+            realtimeStreamer.setFrameSource(null);
+        }
+    }
+
+    /**
+     * Renders a procedural effect into a movie, uploads it and plays it.
+     *
+     * @param frames the number of frames to render
+     * @param fps the frame rate of the movie
+     */
+    public CompletableFuture<Void> bakeEffect(Effect effect, int frames, int fps) {
+        return submit(Priority.WRITE, () -> {
+            TwinklyTreeEffectRenderer renderer = createRenderer();
+            TwinklyTreeMovieEncoder movieEncoder = getMovieEncoder();
+            movieEncoder.begin(frames);
+            byte[] frame = new byte[renderer.getFrameSize()];
+            for (int i = 0; i < frames; i++) {
+                renderer.render(effect, (float) i / fps, frame);
+                movieEncoder.addFrame(frame);
+            }
+            uploadMovie(movieEncoder, 1000 / Math.max(1, fps));
+        });
+    }
+
+    private TwinklyTreeEffectRenderer createRenderer() throws IOException {
+        GestaltResponse gestalt = catalog.get(TwinklyTreeEndpoint.GESTALT, GestaltResponse.class, this::loadGestalt);
+        LayoutResponse layout = catalog.get(TwinklyTreeEndpoint.LAYOUT, LayoutResponse.class, this::loadLayout);
+        return new TwinklyTreeEffectRenderer(layout, gestalt.numberOfLed, gestalt.bytesPerLed);
+    }
+
+    private TwinklyTreeMovieEncoder getMovieEncoder() throws IOException {
+        TwinklyTreeMovieEncoder movieEncoder = this.movieEncoder;
+        if (movieEncoder == null) {
+            GestaltResponse gestalt = catalog.get(TwinklyTreeEndpoint.GESTALT, GestaltResponse.class,
+                    this::loadGestalt);
+            movieEncoder = new TwinklyTreeMovieEncoder(gestalt.numberOfLed, gestalt.bytesPerLed);
+            this.movieEncoder = movieEncoder;
+        }
+        return movieEncoder;
+    }
+
+    private void uploadMovie(TwinklyTreeMovieEncoder movieEncoder, int frameDelay) throws IOException {
+        int frames = movieEncoder.getFrameCount();
+        logger.debug("Uploading movie of {} frames with {} ms frame delay", frames, frameDelay);
+        setMode(MODE_OFF);
+        ByteBuffer payload = movieEncoder.getPayload();
+        MovieUploadResponse response = sendAuthenticated(TwinklyTreeEndpoint.MOVIE_FULL,
+                (client, token) -> client.sendBinary(TwinklyTreeEndpoint.MOVIE_FULL, payload, token,
+                        MovieUploadResponse.class));
+        if (response.framesNumber != frames) {
+            throw new TwinklyTreeRejectedException(
+                    "Twinkly received " + response.framesNumber + " of " + frames + " frames");
+        }
+        sendRequest(TwinklyTreeEndpoint.MOVIE_CONFIG, "POST",
+                TwinklyTreeRequests.movieConfig(frameDelay, movieEncoder.getLedCount(), frames));
+        catalog.invalidate(TwinklyTreeEndpoint.MOVIES);
+        setMode(MODE_MOVIE);
+    }
+
+    private CompletableFuture<Void> submit(Priority priority, DeviceTask task) {
+        TwinklyTreeCommandQueue commandQueue = this.commandQueue;
+        if (commandQueue == null) {
+            return CompletableFuture.failedFuture(new IOException("Twinkly handler is not initialized"));
+        }
+        return commandQueue.submit(priority, () -> runOnDevice(task));
     }
 
     @Override
@@ -236,16 +839,36 @@ public class TwinklyTreeHandler extends BaseThingHandler {
         logger.debug("Start initializing!");
         config = getConfigAs(TwinklyTreeConfiguration.class);
 
+        Duration refreshInterval = Duration.ofSeconds(config.refresh != null ? config.refresh : 0);
+        circuitBreaker = new TwinklyTreeCircuitBreaker(max(refreshInterval, MIN_PROBE_DELAY), MAX_PROBE_DELAY);
+        metrics = metricsRegistry.register(getThing().getUID());
+        TwinklyTreeClient client = new TwinklyTreeClient(getThing().getUID().getId(), config.getBaseURI(),
+                Duration.ofSeconds(config.connectTimeout), Duration.ofSeconds(config.requestTimeout), circuitBreaker,
+                metrics);
+        this.client = client;
+        tokenManager = new TwinklyTreeTokenManager(client, scheduler, this::tokenRenewed);
+        TwinklyTreeCommandQueue commandQueue = new TwinklyTreeCommandQueue(getThing().getUID().getId());
+        this.commandQueue = commandQueue;
+        commandCoalescer = new TwinklyTreeCommandCoalescer(commandQueue, scheduler, metrics, config.maxCommandRate);
+        stateCache.clear();
+        nextReconciliation = System.nanoTime();
+        catalog = new TwinklyTreeCatalog(Duration.ofSeconds(config.catalogTtl));
+
         updateStatus(ThingStatus.UNKNOWN);
+        submit(Priority.READ, this::warmUp);
 
         Integer refreshRate = 0;
         if (config.refresh != null) {
             refreshRate = config.refresh;
         }
         if (refreshRate > 0) {
-            logger.debug("Starting refresh job with {} refresh rate", refreshRate);
-            pollingJob = scheduler.scheduleWithFixedDelay(this::refreshState, 0, refreshRate, TimeUnit.SECONDS);
+            Duration offset = pollOffset(Duration.ofSeconds(refreshRate));
+            logger.debug("Starting refresh job with {} refresh rate, first poll in {} ms", refreshRate,
+                    offset.toMillis());
+            schedulePoll(startPolling(), offset);
         }
+        metricsJob = scheduler.scheduleWithFixedDelay(this::updateMetricChannels, 0, METRICS_INTERVAL.toMillis(),
+                TimeUnit.MILLISECONDS);
 
         // if (token != null) {
         // updateStatus(ThingStatus.ONLINE);
@@ -263,110 +886,288 @@ public class TwinklyTreeHandler extends BaseThingHandler {
         // "Can not access device as username and/or password are invalid");
     }
 
-    private void refreshState() {
-        for (Channel channel : this.getThing().getChannels()) {
-            if (isLinked(channel.getUID())) {
-                handleCommand(channel.getUID(), RefreshType.REFRESH);
-            }
+    /**
+     * Logs in, reads all linked channels and loads the catalog on the device thread, so the thing goes online as soon
+     * as the device has answered instead of waiting for the first poll.
+     */
+    private void warmUp() throws IOException {
+        TwinklyTreeTokenManager tokenManager = this.tokenManager;
+        if (tokenManager == null) {
+            throw new IOException("Twinkly client is not initialized");
         }
+        TwinklyTreeClient.await(tokenManager.getToken());
+        refreshChannels(getLinkedChannels(), true);
+        nextReconciliation = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.reconcileInterval);
+        tryRefreshCatalog();
     }
 
-    private synchronized void login() {
+    /**
+     * Returns a stable offset within the refresh interval derived from the thing UID, so the polls of many devices
+     * are spread over the interval instead of all starting at once.
+     */
+    private Duration pollOffset(Duration interval) {
+        long hash = getThing().getUID().getAsString().hashCode() * 0x9E3779B97F4A7C15L;
+        return Duration.ofMillis(Math.floorMod(hash ^ (hash >>> 32), interval.toMillis()));
+    }
+
+    private void refreshState(int generation) {
+        long start = System.nanoTime();
+        refreshLinkedChannels().whenComplete((result, exception) -> {
+            Duration duration = Duration.ofNanos(System.nanoTime() - start);
+            if (duration.compareTo(Duration.ofSeconds(config.refresh)) > 0) {
+                logger.debug("Poll cycle took {} ms, longer than the refresh interval: {}", duration.toMillis(),
+                        metrics);
+            }
+            schedulePoll(generation, nextPollDelay());
+        });
+    }
+
+    /**
+     * Queues a refresh of all linked channels, probing the device first while it is unreachable. Fresh cached values
+     * are used instead of reading the device, except for a full read once per reconciliation interval.
+     *
+     * @return a future completed when the refresh has run
+     */
+    CompletableFuture<Void> refreshLinkedChannels() {
+        List<ChannelUID> linkedChannels = getLinkedChannels();
+        return submit(Priority.READ, () -> {
+            if (!circuitBreaker.isClosed()) {
+                probe();
+            }
+            long now = System.nanoTime();
+            boolean reconcile = now - nextReconciliation >= 0;
+            refreshChannels(linkedChannels, reconcile);
+            if (reconcile) {
+                nextReconciliation = now + TimeUnit.SECONDS.toNanos(config.reconcileInterval);
+            }
+            tryRefreshCatalog();
+        });
+    }
+
+    /**
+     * Refreshes the catalog, only logging failures. The catalog is loaded again on the next poll or when it is needed.
+     */
+    private void tryRefreshCatalog() {
         try {
-            config.token = null;
-
-            JsonObject loginResponse = sendRequest(new URL(config.getBaseURL(), "/xled/v1/login"), "POST",
-                    "{\"challenge\":\"AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA\"}", null,
-                    false);
-            String unverifiedToken = loginResponse.get("authentication_token").getAsString();
-            String challengeResponse = loginResponse.get("challenge-response").getAsString();
-            Long tokenExpiresIn = loginResponse.get("authentication_token_expires_in").getAsLong();
-
-            logger.debug("Twinkly sent login token {} with challenge {}", unverifiedToken, challengeResponse);
-
-            JsonObject verifyResponse = sendRequest(new URL(config.getBaseURL(), "/xled/v1/verify"), "POST",
-                    "{\"challenge-response\":\"" + challengeResponse + "\"}", unverifiedToken, false);
-            config.token = unverifiedToken;
-            config.tokenExpiryDate = new Date(System.currentTimeMillis() + (tokenExpiresIn.longValue() * 1000));
-            updateStatus(ThingStatus.ONLINE);
+            refreshCatalog();
         } catch (IOException e) {
-            logger.error("Error while connecting to twinkly ", e);
+            logger.debug("Could not refresh the Twinkly catalog: {}", e.getMessage());
         }
     }
 
-    @Override
-    public void dispose() {
-        if (pollingJob != null) {
-            pollingJob.cancel(true);
+    private List<ChannelUID> getLinkedChannels() {
+        List<ChannelUID> linkedChannels = new ArrayList<>();
+        for (Channel channel : this.getThing().getChannels()) {
+            if (isLinked(channel.getUID())) {
+                linkedChannels.add(channel.getUID());
+            }
         }
+        return linkedChannels;
     }
 
-    private boolean isTokenExpired() {
-        return config.tokenExpiryDate.before(new Date());
+    private void updateMetricChannels() {
+        EndpointMetrics total = metrics.getTotal();
+        updateMetricChannel(CHANNEL_REQUEST_COUNT, new DecimalType(total.getRequests()));
+        updateMetricChannel(CHANNEL_ERROR_COUNT, new DecimalType(total.getErrors()));
+        updateMetricChannel(CHANNEL_RETRY_COUNT, new DecimalType(total.getRetries()));
+        updateMetricChannel(CHANNEL_RELOGIN_COUNT, new DecimalType(metrics.getRelogins()));
+        updateMetricChannel(CHANNEL_COALESCED_COUNT, new DecimalType(metrics.getCoalesced()));
+        Histogram latency = total.getLatency();
+        updateMetricChannel(CHANNEL_LATENCY_P50, milliseconds(latency.getPercentile(50)));
+        updateMetricChannel(CHANNEL_LATENCY_P95, milliseconds(latency.getPercentile(95)));
+        updateMetricChannel(CHANNEL_LATENCY_P99, milliseconds(latency.getPercentile(99)));
     }
 
-    private synchronized JsonObject sendRequest(URL loginURL, String httpMethod, @Nullable String requestString,
-            @Nullable String token) throws ProtocolException {
-        return sendRequest(loginURL, httpMethod, requestString, token, true);
+    private void updateMetricChannel(String channelId, State state) {
+        if (isLinked(channelId)) {
+            updateState(channelId, state);
+        }
     }
 
-    private synchronized JsonObject sendRequest(URL loginURL, String httpMethod, @Nullable String requestString,
-            @Nullable String token, boolean reconnectEnabled) throws ProtocolException {
-        JsonObject ret;
-        try {
-            ret = sendRequestWrapped(loginURL, httpMethod, requestString, token);
-        } catch (IOException ex) {
-            logger.debug("Invalid Token, attempting to reconnect");
-            if (reconnectEnabled) {
-                login();
-            }
-            try {
-                ret = sendRequestWrapped(loginURL, httpMethod, requestString, config.token);
-            } catch (IOException ex2) {
-                logger.error("Attempt to reconnect failed with an exception: ", ex2);
-                ret = new JsonObject();
-            }
-        }
-        return ret;
+    private static QuantityType<Time> milliseconds(long value) {
+        return new QuantityType<>(value, MetricPrefix.MILLI(Units.SECOND));
     }
 
-    private synchronized JsonObject sendRequestWrapped(URL loginURL, String httpMethod, @Nullable String requestString,
-            @Nullable String token) throws IOException, ProtocolException {
-        byte[] out = null;
-        HttpURLConnection connection = (HttpURLConnection) loginURL.openConnection();
-        if (token != null) {
-            connection.setRequestProperty("X-Auth-Token", token);
+    /**
+     * Starts a new poll chain, ending any chain of an earlier lifecycle.
+     *
+     * @return the generation to schedule the polls of the new chain with
+     */
+    private synchronized int startPolling() {
+        return ++pollGeneration;
+    }
+
+    /**
+     * Schedules the next poll, unless the handler has been disposed or re-initialized since the chain was started.
+     */
+    private synchronized void schedulePoll(int generation, Duration delay) {
+        if (generation == pollGeneration && commandQueue != null) {
+            pollingJob = scheduler.schedule(() -> refreshState(generation), delay.toMillis(), TimeUnit.MILLISECONDS);
         }
-        connection.setRequestMethod(httpMethod);
-        if (requestString != null) {
-            out = requestString.getBytes(StandardCharsets.UTF_8);
-            connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded; charset=UTF-8");
-            // connection.setFixedLengthStreamingMode(out.length);
-            connection.setDoOutput(true);
+    }
+
+    /**
+     * Returns the refresh interval while the device is reachable, and the growing probe delay of the circuit breaker
+     * while it is not.
+     */
+    private Duration nextPollDelay() {
+        return max(Duration.ofSeconds(config.refresh), circuitBreaker.getRetryDelay());
+    }
+
+    /**
+     * Checks whether the device is back with an unauthenticated request.
+     */
+    private void probe() throws IOException {
+        TwinklyTreeClient client = this.client;
+        if (client == null) {
+            throw new IOException("Twinkly client is not initialized");
         }
-        connection.setDoInput(true);
-        connection.connect();
+        client.sendAndWait(TwinklyTreeEndpoint.GESTALT, "GET", null, null, GestaltResponse.class);
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
 
-        if (out != null) {
-            try (OutputStream os = connection.getOutputStream()) {
-                os.write(out);
+    @Override
+    public Collection<Class<? extends ThingHandlerService>> getServices() {
+        return List.of(TwinklyTreeActions.class);
+    }
+
+    @Override
+    public void dispose() {
+        TwinklyTreeCommandQueue commandQueue;
+        synchronized (this) {
+            pollGeneration++;
+            ScheduledFuture<?> pollingJob = this.pollingJob;
+            if (pollingJob != null) {
+                pollingJob.cancel(true);
+                this.pollingJob = null;
             }
+            commandQueue = this.commandQueue;
+            this.commandQueue = null;
+        }
+        ScheduledFuture<?> metricsJob = this.metricsJob;
+        if (metricsJob != null) {
+            metricsJob.cancel(true);
+            this.metricsJob = null;
+        }
+        TwinklyTreeCommandCoalescer commandCoalescer = this.commandCoalescer;
+        if (commandCoalescer != null) {
+            commandCoalescer.dispose();
+            this.commandCoalescer = null;
+        }
+        if (commandQueue != null) {
+            commandQueue.dispose();
+        }
+        TwinklyTreeRealtimeStreamer realtimeStreamer;
+        synchronized (this) {
+            realtimeStreamer = this.realtimeStreamer;
+            this.realtimeStreamer = null;
+        }
+        if (realtimeStreamer != null) {
+            realtimeStreamer.dispose();
+        }
+        movieEncoder = null;
+        TwinklyTreeTokenManager tokenManager = this.tokenManager;
+        if (tokenManager != null) {
+            tokenManager.dispose();
+            this.tokenManager = null;
         }
+        TwinklyTreeClient client = this.client;
+        if (client != null) {
+            client.dispose();
+            this.client = null;
+        }
+    }
+
+    @Override
+    public void handleRemoval() {
+        metricsRegistry.unregister(getThing().getUID());
+        super.handleRemoval();
+    }
+
+    private XledResponse sendRequest(TwinklyTreeEndpoint endpoint, String httpMethod, byte @Nullable [] body)
+            throws IOException {
+        return sendRequest(endpoint, httpMethod, body, XledResponse.class);
+    }
 
-        StringBuilder textBuilder = new StringBuilder();
-        try (Reader reader = new BufferedReader(
-                new InputStreamReader(connection.getInputStream(), Charset.forName(StandardCharsets.UTF_8.name())))) {
-            int c = 0;
-            while ((c = reader.read()) != -1) {
-                textBuilder.append((char) c);
+    /**
+     * Sends an authenticated request. A request rejected with HTTP 401 is retried once with a renewed token, other
+     * failures such as timeouts are passed on without touching the session.
+     */
+    private <T> T sendRequest(TwinklyTreeEndpoint endpoint, String httpMethod, byte @Nullable [] body,
+            Class<T> responseType) throws IOException {
+        return sendAuthenticated(endpoint,
+                (client, token) -> client.send(endpoint, httpMethod, body, token, responseType));
+    }
+
+    /**
+     * Sends an authenticated request without waiting for the response, see
+     * {@link #sendRequest(TwinklyTreeEndpoint, String, byte[], Class)}.
+     */
+    private <T> CompletableFuture<T> sendRequestAsync(TwinklyTreeEndpoint endpoint, String httpMethod,
+            byte @Nullable [] body, Class<T> responseType) {
+        return sendAuthenticatedAsync(endpoint,
+                (client, token) -> client.send(endpoint, httpMethod, body, token, responseType));
+    }
+
+    /**
+     * Sends a request built for the current token, retrying it once with a renewed token if it is rejected.
+     */
+    private <T> T sendAuthenticated(TwinklyTreeEndpoint endpoint,
+            BiFunction<TwinklyTreeClient, String, CompletableFuture<T>> request) throws IOException {
+        return TwinklyTreeClient.await(sendAuthenticatedAsync(endpoint, request));
+    }
+
+    /**
+     * Sends a request built for the current token without waiting for the response. A request rejected with HTTP 401
+     * is retried once with a renewed token. Concurrent requests rejected with the same token share one login.
+     */
+    private <T> CompletableFuture<T> sendAuthenticatedAsync(TwinklyTreeEndpoint endpoint,
+            BiFunction<TwinklyTreeClient, String, CompletableFuture<T>> request) {
+        TwinklyTreeClient client = this.client;
+        TwinklyTreeTokenManager tokenManager = this.tokenManager;
+        if (client == null || tokenManager == null) {
+            return CompletableFuture.failedFuture(new IOException("Twinkly client is not initialized"));
+        }
+        return tokenManager.getToken().thenCompose(token -> request.apply(client, token).exceptionallyCompose(e -> {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            if (!(cause instanceof TwinklyTreeHttpException) || !((TwinklyTreeHttpException) cause).isUnauthorized()) {
+                return CompletableFuture.failedFuture(cause);
             }
+            logger.debug("Invalid Token, attempting to reconnect");
+            client.getMetrics().recordRetry(endpoint);
+            return tokenManager.renew(token).thenCompose(renewedToken -> request.apply(client, renewedToken));
+        }));
+    }
+
+    /**
+     * Sends a GET request to an endpoint older firmware may not support.
+     *
+     * @return the response, or <code>null</code> if the device rejected the request
+     */
+    private <T> @Nullable T sendOptionalRequest(TwinklyTreeEndpoint endpoint, Class<T> responseType)
+            throws IOException {
+        try {
+            return sendRequest(endpoint, "GET", null, responseType);
+        } catch (TwinklyTreeHttpException e) {
+            if (e.isUnauthorized() || e.isServerError()) {
+                throw e;
+            }
+            logger.debug("Twinkly does not support {}: {}", endpoint.getPath(), e.getMessage());
+            return null;
+        } catch (TwinklyTreeRejectedException e) {
+            logger.debug("Twinkly does not support {}: {}", endpoint.getPath(), e.getMessage());
+            return null;
         }
+    }
 
-        if (logger.isDebugEnabled()) {
-            logger.debug("Request {} {} {} got response headers {} with data {} ", httpMethod, loginURL, requestString,
-                    connection.getHeaderFields(), textBuilder);
+    private void tokenRenewed(String token) {
+        TwinklyTreeRealtimeStreamer realtimeStreamer = this.realtimeStreamer;
+        if (realtimeStreamer != null) {
+            realtimeStreamer.setToken(token);
         }
-        JsonObject loginResponse = JsonParser.parseString(textBuilder.toString()).getAsJsonObject();
-        return loginResponse;
+        updateStatus(ThingStatus.ONLINE);
     }
 }
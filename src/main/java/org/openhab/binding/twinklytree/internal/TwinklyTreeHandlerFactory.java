@@ -12,19 +12,21 @@
  */
 package org.openhab.binding.twinklytree.internal;
 
-import static org.openhab.binding.twinklytree.internal.TwinklyTreeBindingConstants.THING_TYPE_TWINKLY;
+import static org.openhab.binding.twinklytree.internal.TwinklyTreeBindingConstants.*;
 
-import java.util.Collections;
 import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.thing.Bridge;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingTypeUID;
 import org.openhab.core.thing.binding.BaseThingHandlerFactory;
 import org.openhab.core.thing.binding.ThingHandler;
 import org.openhab.core.thing.binding.ThingHandlerFactory;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
 
 /**
  * The {@link TwinklyTreeHandlerFactory} is responsible for creating things and thing
@@ -37,7 +39,17 @@ import org.osgi.service.component.annotations.Component;
 @Component(configurationPid = "binding.twinklytree", service = ThingHandlerFactory.class)
 public class TwinklyTreeHandlerFactory extends BaseThingHandlerFactory {
 
-    private static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Collections.singleton(THING_TYPE_TWINKLY);
+    private static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Set.of(THING_TYPE_TWINKLY, THING_TYPE_GROUP);
+
+    private final TwinklyTreeMetricsRegistry metricsRegistry;
+    private final TwinklyTreeStateDescriptionProvider stateDescriptionProvider;
+
+    @Activate
+    public TwinklyTreeHandlerFactory(final @Reference TwinklyTreeMetricsRegistry metricsRegistry,
+            final @Reference TwinklyTreeStateDescriptionProvider stateDescriptionProvider) {
+        this.metricsRegistry = metricsRegistry;
+        this.stateDescriptionProvider = stateDescriptionProvider;
+    }
 
     @Override
     public boolean supportsThingType(ThingTypeUID thingTypeUID) {
@@ -49,7 +61,9 @@ public class TwinklyTreeHandlerFactory extends BaseThingHandlerFactory {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (THING_TYPE_TWINKLY.equals(thingTypeUID)) {
-            return new TwinklyTreeHandler(thing);
+            return new TwinklyTreeHandler(thing, metricsRegistry, stateDescriptionProvider);
+        } else if (THING_TYPE_GROUP.equals(thingTypeUID)) {
+            return new TwinklyTreeGroupHandler((Bridge) thing);
         }
 
         return null;
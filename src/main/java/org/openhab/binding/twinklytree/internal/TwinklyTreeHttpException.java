@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.io.IOException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link TwinklyTreeHttpException} signals that the device answered a request with an HTTP error status.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeHttpException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int UNAUTHORIZED = 401;
+
+    private final int statusCode;
+
+    public TwinklyTreeHttpException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isUnauthorized() {
+        return statusCode == UNAUTHORIZED;
+    }
+
+    /**
+     * Returns whether the device failed to handle the request, as opposed to rejecting it as invalid.
+     */
+    public boolean isServerError() {
+        return statusCode >= 500;
+    }
+}
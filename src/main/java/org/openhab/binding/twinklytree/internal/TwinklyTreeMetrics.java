@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link TwinklyTreeMetrics} records request counts, errors, retries and latencies per xled endpoint of a
+ * single device. All recording is lock-free.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeMetrics {
+
+    /**
+     * A latency histogram with fixed, roughly logarithmic buckets in milliseconds. Percentiles are reported as the
+     * upper bound of the bucket they fall into.
+     */
+    public static class Histogram {
+        private static final long[] BOUNDS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000,
+                Long.MAX_VALUE };
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BOUNDS.length);
+
+        void record(long millis) {
+            int i = 0;
+            while (millis > BOUNDS[i]) {
+                i++;
+            }
+            buckets.incrementAndGet(i);
+        }
+
+        /**
+         * Adds all latencies recorded by another histogram, e.g. to combine the histograms of several devices.
+         */
+        public void add(Histogram other) {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.addAndGet(i, other.buckets.get(i));
+            }
+        }
+
+        public long getCount() {
+            long count = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                count += buckets.get(i);
+            }
+            return count;
+        }
+
+        /**
+         * Returns the given percentile (0 to 100) in milliseconds, or 0 if nothing has been recorded.
+         */
+        public long getPercentile(double percentile) {
+            long[] counts = new long[buckets.length()];
+            long total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(total * percentile / 100);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return i == BOUNDS.length - 1 ? BOUNDS[i - 1] : BOUNDS[i];
+                }
+            }
+            return BOUNDS[BOUNDS.length - 2];
+        }
+    }
+
+    /**
+     * The metrics of a single endpoint.
+     */
+    public static class EndpointMetrics {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final Histogram latency = new Histogram();
+
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        public long getRetries() {
+            return retries.sum();
+        }
+
+        public Histogram getLatency() {
+            return latency;
+        }
+
+        @Override
+        public String toString() {
+            return "requests=" + getRequests() + ", errors=" + getErrors() + ", retries=" + getRetries() + ", p50="
+                    + latency.getPercentile(50) + "ms, p95=" + latency.getPercentile(95) + "ms, p99="
+                    + latency.getPercentile(99) + "ms";
+        }
+    }
+
+    private final Map<TwinklyTreeEndpoint, EndpointMetrics> endpoints = new EnumMap<>(TwinklyTreeEndpoint.class);
+    private final EndpointMetrics total = new EndpointMetrics();
+    private final LongAdder relogins = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public TwinklyTreeMetrics() {
+        for (TwinklyTreeEndpoint endpoint : TwinklyTreeEndpoint.values()) {
+            endpoints.put(endpoint, new EndpointMetrics());
+        }
+    }
+
+    public void recordRequest(TwinklyTreeEndpoint endpoint, long durationNanos, boolean success) {
+        long millis = TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        for (EndpointMetrics metrics : new EndpointMetrics[] { get(endpoint), total }) {
+            metrics.requests.increment();
+            metrics.latency.record(millis);
+            if (!success) {
+                metrics.errors.increment();
+            }
+        }
+    }
+
+    public void recordRetry(TwinklyTreeEndpoint endpoint) {
+        get(endpoint).retries.increment();
+        total.retries.increment();
+    }
+
+    public void recordRelogin() {
+        relogins.increment();
+    }
+
+    /**
+     * Records a command that was dropped because a newer command for the same endpoint superseded it.
+     */
+    public void recordCoalesced() {
+        coalesced.increment();
+    }
+
+    public EndpointMetrics get(TwinklyTreeEndpoint endpoint) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        if (metrics == null) {
+            throw new IllegalArgumentException("Unknown endpoint " + endpoint);
+        }
+        return metrics;
+    }
+
+    /**
+     * Returns the metrics of all endpoints combined.
+     */
+    public EndpointMetrics getTotal() {
+        return total;
+    }
+
+    public long getRelogins() {
+        return relogins.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("relogins=").append(getRelogins()).append(", coalesced=")
+                .append(getCoalesced());
+        endpoints.forEach((endpoint, metrics) -> {
+            if (metrics.getRequests() > 0) {
+                builder.append(", ").append(endpoint.getPath()).append(": [").append(metrics).append(']');
+            }
+        });
+        return builder.toString();
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.thing.ThingUID;
+import org.osgi.service.component.annotations.Component;
+
+/**
+ * The {@link TwinklyTreeMetricsRegistry} holds the {@link TwinklyTreeMetrics} of all Twinkly devices of the binding.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = TwinklyTreeMetricsRegistry.class)
+public class TwinklyTreeMetricsRegistry {
+
+    private final Map<ThingUID, TwinklyTreeMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the metrics of the given device, creating them on first use. Metrics survive a re-initialization of
+     * the device and are only dropped when the device is removed.
+     */
+    public TwinklyTreeMetrics register(ThingUID thingUID) {
+        return metrics.computeIfAbsent(thingUID, uid -> new TwinklyTreeMetrics());
+    }
+
+    public void unregister(ThingUID thingUID) {
+        metrics.remove(thingUID);
+    }
+
+    public @Nullable TwinklyTreeMetrics get(ThingUID thingUID) {
+        return metrics.get(thingUID);
+    }
+
+    public Map<ThingUID, TwinklyTreeMetrics> getAll() {
+        return Map.copyOf(metrics);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link TwinklyTreeMovieEncoder} encodes frames into the binary movie format of the device: all frames one
+ * after the other, every frame holding the RGB (or RGBW) bytes of every LED. Frames are written into a direct buffer
+ * that is kept and reused for the next movie, so uploads do not build the payload on the heap.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeMovieEncoder {
+
+    private final int ledCount;
+    private final int frameSize;
+
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(0);
+    private int frameCount;
+
+    public TwinklyTreeMovieEncoder(int ledCount, int bytesPerLed) {
+        if (ledCount <= 0 || bytesPerLed <= 0) {
+            throw new IllegalArgumentException("Invalid LED count " + ledCount + " or bytes per LED " + bytesPerLed);
+        }
+        this.ledCount = ledCount;
+        this.frameSize = ledCount * bytesPerLed;
+    }
+
+    public int getLedCount() {
+        return ledCount;
+    }
+
+    public int getFrameSize() {
+        return frameSize;
+    }
+
+    /**
+     * Starts a new movie of the given number of frames, growing the buffer if it is too small.
+     */
+    public void begin(int frames) {
+        long size = (long) frames * frameSize;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Movie of " + frames + " frames is too large");
+        }
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocateDirect((int) size);
+        }
+        buffer.clear().limit((int) size);
+        frameCount = 0;
+    }
+
+    /**
+     * Appends a frame of at least {@link #getFrameSize()} bytes.
+     */
+    public void addFrame(byte[] frame) {
+        if (frame.length < frameSize) {
+            throw new IllegalArgumentException("Frame needs " + frameSize + " bytes but has " + frame.length);
+        }
+        if (buffer.remaining() < frameSize) {
+            throw new IllegalStateException("Movie already holds " + frameCount + " frames");
+        }
+        buffer.put(frame, 0, frameSize);
+        frameCount++;
+    }
+
+    /**
+     * Reads a movie file of raw frames straight into the buffer. A trailing incomplete frame is ignored.
+     *
+     * @return the number of frames read
+     */
+    public int readFile(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int frames = (int) Math.min(Integer.MAX_VALUE / frameSize, channel.size() / frameSize);
+            begin(frames);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Unexpected end of movie file " + file);
+                }
+            }
+            frameCount = frames;
+            return frames;
+        }
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Returns a read-only view of the encoded frames. It is valid until the next movie is started.
+     */
+    public ByteBuffer getPayload() {
+        ByteBuffer payload = buffer.duplicate();
+        payload.flip();
+        return payload.asReadOnlyBuffer();
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Base64;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link TwinklyTreeRealtimeStreamer} sends LED frames to the realtime UDP port of a device in "rt" mode.
+ * Frames handed in by {@link #submitFrame(byte[])} are copied into preallocated buffers and sent by a paced
+ * scheduler at the target frame rate. The last frame is repeated on every tick, which also keeps the device in
+ * realtime mode. Alternatively a {@link FrameSource} renders each frame on the sending thread right before it is
+ * sent, so rendering is paced by the same tick. Neither submitting nor sending a frame allocates memory.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeRealtimeStreamer {
+
+    public static final int DEFAULT_PORT = 7777;
+
+    private static final int TOKEN_LENGTH = 8;
+    private static final int MAX_FRAGMENT_SIZE = 900;
+
+    /**
+     * Versions of the realtime packet header.
+     */
+    public enum Protocol {
+        /** Single packet, LED count in the header, up to 255 LEDs */
+        V1(1, 1 + TOKEN_LENGTH + 1),
+        /** Single packet without LED count */
+        V2(2, 1 + TOKEN_LENGTH + 1),
+        /** Fragmented frames of up to 900 bytes each */
+        V3(3, 1 + TOKEN_LENGTH + 3);
+
+        private final byte id;
+        private final int headerSize;
+
+        Protocol(int id, int headerSize) {
+            this.id = (byte) id;
+            this.headerSize = headerSize;
+        }
+
+        /**
+         * Selects the protocol supported by the given firmware version.
+         */
+        public static Protocol forFirmware(String firmwareVersion, int ledCount) {
+            if (compareVersions(firmwareVersion, "2.4.14") >= 0) {
+                return V3;
+            }
+            return ledCount <= 255 ? V1 : V2;
+        }
+    }
+
+    /**
+     * Renders frames on the sending thread.
+     */
+    @FunctionalInterface
+    public interface FrameSource {
+        /**
+         * Fills the given buffer of {@link #getFrameSize()} bytes with the next frame.
+         */
+        void render(byte[] frame);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(TwinklyTreeRealtimeStreamer.class);
+
+    private final Protocol protocol;
+    private final int ledCount;
+    private final int frameSize;
+    private final DatagramChannel channel;
+    private final ByteBuffer packet;
+    private final ScheduledExecutorService executor;
+
+    private final Object frameLock = new Object();
+    private byte[] pendingFrame;
+    private byte[] sendingFrame;
+    private boolean frameReady;
+    private volatile byte[] token = new byte[TOKEN_LENGTH];
+    private volatile @Nullable FrameSource frameSource;
+
+    private @Nullable ScheduledFuture<?> streamJob;
+    private long framesSent;
+    private long sendErrors;
+
+    public TwinklyTreeRealtimeStreamer(String id, InetSocketAddress address, Protocol protocol, int ledCount,
+            int bytesPerLed) throws IOException {
+        this.protocol = protocol;
+        this.ledCount = ledCount;
+        this.frameSize = ledCount * bytesPerLed;
+        this.pendingFrame = new byte[frameSize];
+        this.sendingFrame = new byte[frameSize];
+        this.packet = ByteBuffer
+                .allocateDirect(protocol.headerSize + (protocol == Protocol.V3 ? MAX_FRAGMENT_SIZE : frameSize));
+        this.channel = DatagramChannel.open();
+        this.channel.connect(address);
+        this.executor = Executors
+                .newSingleThreadScheduledExecutor(new NamedThreadFactory("twinklytree-rt-" + id, true));
+    }
+
+    /**
+     * Sets the authentication token sent with every packet, to be called again whenever the token is renewed.
+     */
+    public void setToken(String token) {
+        byte[] decoded = Base64.getDecoder().decode(token);
+        byte[] newToken = new byte[TOKEN_LENGTH];
+        System.arraycopy(decoded, 0, newToken, 0, Math.min(TOKEN_LENGTH, decoded.length));
+        this.token = newToken;
+    }
+
+    /**
+     * Returns the number of bytes of a frame, which is the number of LEDs times the bytes per LED.
+     */
+    public int getFrameSize() {
+        return frameSize;
+    }
+
+    /**
+     * Sets the source rendering every frame, or <code>null</code> to send submitted frames again. Without a source,
+     * the last rendered frame is repeated until a new one is submitted.
+     */
+    public void setFrameSource(@Nullable FrameSource frameSource) {
+        this.frameSource = frameSource;
+    }
+
+    /**
+     * Hands in a frame to be sent on the next tick. A frame that has not been sent yet is replaced. Submitted frames
+     * are ignored while a {@link FrameSource} is set.
+     */
+    public void submitFrame(byte[] frame) {
+        if (frame.length < frameSize) {
+            throw new IllegalArgumentException("Frame needs " + frameSize + " bytes but has " + frame.length);
+        }
+        synchronized (frameLock) {
+            System.arraycopy(frame, 0, pendingFrame, 0, frameSize);
+            frameReady = true;
+        }
+    }
+
+    /**
+     * Starts sending frames at the given rate. Does nothing once the streamer has been disposed.
+     */
+    public synchronized void start(int fps) {
+        stop();
+        if (executor.isShutdown()) {
+            return;
+        }
+        long period = TimeUnit.SECONDS.toNanos(1) / Math.max(1, fps);
+        streamJob = executor.scheduleAtFixedRate(this::tick, 0, period, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized void stop() {
+        ScheduledFuture<?> streamJob = this.streamJob;
+        if (streamJob != null) {
+            streamJob.cancel(false);
+            this.streamJob = null;
+        }
+    }
+
+    public synchronized boolean isRunning() {
+        return streamJob != null;
+    }
+
+    public void dispose() {
+        stop();
+        executor.shutdownNow();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.debug("Error closing realtime channel: {}", e.getMessage());
+        }
+        logger.debug("Realtime streaming sent {} frames with {} errors", framesSent, sendErrors);
+    }
+
+    private void tick() {
+        FrameSource frameSource = this.frameSource;
+        if (frameSource != null) {
+            try {
+                frameSource.render(sendingFrame);
+            } catch (RuntimeException e) {
+                logger.warn("Error rendering realtime frame, stopping the frame source: {}", e.getMessage());
+                this.frameSource = null;
+            }
+        } else {
+            synchronized (frameLock) {
+                if (frameReady) {
+                    byte[] frame = sendingFrame;
+                    sendingFrame = pendingFrame;
+                    pendingFrame = frame;
+                    frameReady = false;
+                }
+            }
+        }
+        try {
+            sendFrame(sendingFrame);
+            framesSent++;
+        } catch (IOException e) {
+            if (sendErrors++ == 0) {
+                logger.debug("Error sending realtime frame: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void sendFrame(byte[] frame) throws IOException {
+        byte[] token = this.token;
+        switch (protocol) {
+            case V1:
+                packet.clear();
+                packet.put(protocol.id).put(token).put((byte) ledCount).put(frame, 0, frameSize).flip();
+                channel.write(packet);
+                break;
+            case V2:
+                packet.clear();
+                packet.put(protocol.id).put(token).put((byte) 0).put(frame, 0, frameSize).flip();
+                channel.write(packet);
+                break;
+            case V3:
+                int fragment = 0;
+                for (int offset = 0; offset < frameSize; offset += MAX_FRAGMENT_SIZE) {
+                    packet.clear();
+                    packet.put(protocol.id).put(token).put((byte) 0).put((byte) 0).put((byte) fragment++)
+                            .put(frame, offset, Math.min(MAX_FRAGMENT_SIZE, frameSize - offset)).flip();
+                    channel.write(packet);
+                }
+                break;
+        }
+    }
+
+    static int compareVersions(String version, String other) {
+        String[] parts = version.split("\\.");
+        String[] otherParts = other.split("\\.");
+        for (int i = 0; i < Math.max(parts.length, otherParts.length); i++) {
+            int part = i < parts.length ? parseVersionPart(parts[i]) : 0;
+            int otherPart = i < otherParts.length ? parseVersionPart(otherParts[i]) : 0;
+            if (part != otherPart) {
+                return Integer.compare(part, otherPart);
+            }
+        }
+        return 0;
+    }
+
+    private static int parseVersionPart(String part) {
+        try {
+            return Integer.parseInt(part.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.io.IOException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link TwinklyTreeRejectedException} signals that the device answered but refused a request, e.g. with a
+ * non-success xled result code, or that its answer could not be understood. Unlike other {@link IOException}s it does
+ * not mean the device is unreachable.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeRejectedException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public TwinklyTreeRejectedException(String message) {
+        super(message);
+    }
+
+    public TwinklyTreeRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
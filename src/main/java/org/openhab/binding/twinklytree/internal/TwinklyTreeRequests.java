@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import static org.openhab.binding.twinklytree.internal.TwinklyTreeBindingConstants.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link TwinklyTreeRequests} builds the xled request bodies. Constant bodies are encoded once, variable bodies
+ * are filled into precomputed templates.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public final class TwinklyTreeRequests {
+
+    public static final byte[] EMPTY = encode("{}");
+    public static final byte[] LOGIN = encode(
+            "{\"challenge\":\"AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA\"}");
+
+    private static final Map<String, byte[]> MODES = new HashMap<>();
+
+    static {
+        for (String mode : new String[] { MODE_OFF, MODE_COLOR, MODE_DEMO, MODE_EFFECT, MODE_MOVIE, MODE_PLAYLIST,
+                MODE_RT }) {
+            MODES.put(mode, modeBody(mode));
+        }
+    }
+
+    private static final Template BRIGHTNESS = new Template("{\"mode\":\"enabled\",\"type\":\"A\",\"value\":", "}");
+    private static final Template COLOR = new Template("{\"hue\":", ",\"saturation\":", ",\"value\":", "}");
+    private static final Template EFFECT = new Template("{\"preset_id\":\"", "\",\"effect_id\":\"", "\"}");
+    private static final Template MOVIE = new Template("{\"id\":", "}");
+    private static final Template MOVIE_CONFIG = new Template("{\"frame_delay\":", ",\"leds_number\":",
+            ",\"frames_number\":", "}");
+    private static final Template VERIFY = new Template("{\"challenge-response\":\"", "\"}");
+
+    /**
+     * A request body whose constant parts are encoded once. Values are written between the parts directly as bytes.
+     */
+    private static final class Template {
+        private final byte[][] parts;
+
+        Template(String... parts) {
+            this.parts = new byte[parts.length][];
+            for (int i = 0; i < parts.length; i++) {
+                this.parts[i] = encode(parts[i]);
+            }
+        }
+
+        byte[] fill(int value) {
+            return fill(1, value, 0, 0);
+        }
+
+        byte[] fill(int first, int second) {
+            return fill(2, first, second, 0);
+        }
+
+        byte[] fill(int first, int second, int third) {
+            return fill(3, first, second, third);
+        }
+
+        /**
+         * Fills in a single ASCII value, such as a hex or base64 encoded challenge response.
+         */
+        byte[] fill(String value) {
+            byte[] body = new byte[parts[0].length + value.length() + parts[1].length];
+            System.arraycopy(parts[0], 0, body, 0, parts[0].length);
+            int position = parts[0].length;
+            for (int i = 0; i < value.length(); i++) {
+                body[position++] = (byte) value.charAt(i);
+            }
+            System.arraycopy(parts[1], 0, body, position, parts[1].length);
+            return body;
+        }
+
+        private byte[] fill(int count, int first, int second, int third) {
+            int length = digits(first) + (count > 1 ? digits(second) : 0) + (count > 2 ? digits(third) : 0);
+            for (byte[] part : parts) {
+                length += part.length;
+            }
+            byte[] body = new byte[length];
+            int position = 0;
+            for (int i = 0; i < parts.length; i++) {
+                System.arraycopy(parts[i], 0, body, position, parts[i].length);
+                position += parts[i].length;
+                if (i < count) {
+                    position = putInt(body, position, i == 0 ? first : i == 1 ? second : third);
+                }
+            }
+            return body;
+        }
+
+        private static int digits(int value) {
+            long remaining = Math.abs((long) value);
+            int digits = value < 0 ? 2 : 1;
+            while (remaining >= 10) {
+                remaining /= 10;
+                digits++;
+            }
+            return digits;
+        }
+
+        private static int putInt(byte[] body, int position, int value) {
+            int end = position + digits(value);
+            long remaining = Math.abs((long) value);
+            int i = end;
+            do {
+                body[--i] = (byte) ('0' + remaining % 10);
+                remaining /= 10;
+            } while (remaining > 0);
+            if (value < 0) {
+                body[position] = '-';
+            }
+            return end;
+        }
+    }
+
+    private TwinklyTreeRequests() {
+    }
+
+    public static byte[] mode(String mode) {
+        byte[] body = MODES.get(mode);
+        return body != null ? body : modeBody(mode);
+    }
+
+    public static byte[] brightness(int brightness) {
+        return BRIGHTNESS.fill(brightness);
+    }
+
+    public static byte[] color(int hue, int saturation, int value) {
+        return COLOR.fill(hue, saturation, value);
+    }
+
+    public static byte[] effect(int effect) {
+        return EFFECT.fill(effect, effect);
+    }
+
+    public static byte[] movie(int movie) {
+        return MOVIE.fill(movie);
+    }
+
+    public static byte[] movieConfig(int frameDelay, int ledCount, int frames) {
+        return MOVIE_CONFIG.fill(frameDelay, ledCount, frames);
+    }
+
+    public static byte[] verify(String challengeResponse) {
+        return VERIFY.fill(challengeResponse);
+    }
+
+    private static byte[] modeBody(String mode) {
+        return encode("{\"mode\":\"" + mode + "\"}");
+    }
+
+    private static byte[] encode(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import static org.openhab.binding.twinklytree.internal.TwinklyTreeBindingConstants.*;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.types.State;
+
+/**
+ * The {@link TwinklyTreeSnapshot} is an immutable view of the device state read during one refresh cycle, or of a
+ * scene to be restored later. Values of endpoints that were not read are <code>null</code>.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeSnapshot {
+
+    /**
+     * The endpoints holding the state of a device, in the order they are restored: the content before the mode, so
+     * the device does not briefly show the old content in the restored mode.
+     */
+    public static final List<TwinklyTreeEndpoint> ENDPOINTS = List.of(TwinklyTreeEndpoint.BRIGHTNESS,
+            TwinklyTreeEndpoint.COLOR, TwinklyTreeEndpoint.EFFECT, TwinklyTreeEndpoint.MOVIE, TwinklyTreeEndpoint.MODE);
+
+    private final @Nullable String mode;
+    private final @Nullable Integer brightness;
+    private final @Nullable HSBType color;
+    private final @Nullable Integer effect;
+    private final @Nullable Integer movie;
+
+    public TwinklyTreeSnapshot(@Nullable String mode, @Nullable Integer brightness, @Nullable HSBType color,
+            @Nullable Integer effect, @Nullable Integer movie) {
+        this.mode = mode;
+        this.brightness = brightness;
+        this.color = color;
+        this.effect = effect;
+        this.movie = movie;
+    }
+
+    /**
+     * Returns the endpoints that need to be read to provide the state of the given channel.
+     */
+    public static Set<TwinklyTreeEndpoint> endpointsFor(String channelId) {
+        switch (channelId) {
+            case CHANNEL_SWITCH:
+            case CHANNEL_MODE:
+                return EnumSet.of(TwinklyTreeEndpoint.MODE);
+            case CHANNEL_DIMMER:
+                return EnumSet.of(TwinklyTreeEndpoint.MODE, TwinklyTreeEndpoint.BRIGHTNESS);
+            case CHANNEL_COLOR:
+                return EnumSet.of(TwinklyTreeEndpoint.COLOR);
+            case CHANNEL_CURRENT_EFFECT:
+                return EnumSet.of(TwinklyTreeEndpoint.EFFECT);
+            case CHANNEL_CURRENT_MOVIE:
+                return EnumSet.of(TwinklyTreeEndpoint.MOVIE);
+            default:
+                return EnumSet.noneOf(TwinklyTreeEndpoint.class);
+        }
+    }
+
+    /**
+     * Returns the state of the given channel, or <code>null</code> if the snapshot does not hold the required values.
+     */
+    public @Nullable State stateFor(String channelId) {
+        String mode = this.mode;
+        Integer brightness = this.brightness;
+        Integer effect = this.effect;
+        Integer movie = this.movie;
+        switch (channelId) {
+            case CHANNEL_SWITCH:
+                return mode == null ? null : isOn(mode) ? OnOffType.ON : OnOffType.OFF;
+            case CHANNEL_DIMMER:
+                if (mode == null || brightness == null) {
+                    return null;
+                }
+                return isOn(mode) ? new PercentType(brightness) : PercentType.ZERO;
+            case CHANNEL_MODE:
+                return mode == null ? null : new StringType(mode);
+            case CHANNEL_COLOR:
+                return color;
+            case CHANNEL_CURRENT_EFFECT:
+                return effect == null ? null : new DecimalType(effect);
+            case CHANNEL_CURRENT_MOVIE:
+                return movie == null ? null : new DecimalType(movie);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the value of the given endpoint, or <code>null</code> if it was not read.
+     */
+    public @Nullable Object get(TwinklyTreeEndpoint endpoint) {
+        switch (endpoint) {
+            case MODE:
+                return mode;
+            case BRIGHTNESS:
+                return brightness;
+            case COLOR:
+                return color;
+            case EFFECT:
+                return effect;
+            case MOVIE:
+                return movie;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Returns the endpoints whose values in this snapshot differ from the given current state, in restore order.
+     */
+    public List<TwinklyTreeEndpoint> diff(TwinklyTreeSnapshot current) {
+        List<TwinklyTreeEndpoint> changed = new ArrayList<>();
+        for (TwinklyTreeEndpoint endpoint : ENDPOINTS) {
+            Object value = get(endpoint);
+            if (value != null && !value.equals(current.get(endpoint))) {
+                changed.add(endpoint);
+            }
+        }
+        return changed;
+    }
+
+    private static boolean isOn(String mode) {
+        return !MODE_OFF.equalsIgnoreCase(mode);
+    }
+
+    public @Nullable String getMode() {
+        return mode;
+    }
+
+    public @Nullable Integer getBrightness() {
+        return brightness;
+    }
+
+    public @Nullable HSBType getColor() {
+        return color;
+    }
+
+    public @Nullable Integer getEffect() {
+        return effect;
+    }
+
+    public @Nullable Integer getMovie() {
+        return movie;
+    }
+
+    @Override
+    public String toString() {
+        return "mode=" + mode + ", brightness=" + brightness + ", color=" + color + ", effect=" + effect + ", movie="
+                + movie;
+    }
+}
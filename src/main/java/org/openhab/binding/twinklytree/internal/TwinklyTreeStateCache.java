@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.HSBType;
+
+/**
+ * The {@link TwinklyTreeStateCache} holds the last known value of every state endpoint of a device, stamped with the
+ * time the value was last confirmed by a successful read or write.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeStateCache {
+
+    private static class Entry {
+        private final Object value;
+        private final long confirmedAt;
+
+        Entry(Object value, long confirmedAt) {
+            this.value = value;
+            this.confirmedAt = confirmedAt;
+        }
+    }
+
+    private final Map<TwinklyTreeEndpoint, Entry> entries = new EnumMap<>(TwinklyTreeEndpoint.class);
+
+    /**
+     * Stores a value the device has just reported or accepted.
+     */
+    public synchronized void confirm(TwinklyTreeEndpoint endpoint, Object value) {
+        entries.put(endpoint, new Entry(value, System.nanoTime()));
+    }
+
+    /**
+     * Returns whether the value of the endpoint has been confirmed within the given time.
+     */
+    public synchronized boolean isFresh(TwinklyTreeEndpoint endpoint, Duration maxAge) {
+        Entry entry = entries.get(endpoint);
+        return entry != null && System.nanoTime() - entry.confirmedAt < maxAge.toNanos();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Returns a snapshot of all known values, regardless of their age.
+     */
+    public synchronized TwinklyTreeSnapshot toSnapshot() {
+        return new TwinklyTreeSnapshot((String) get(TwinklyTreeEndpoint.MODE),
+                (Integer) get(TwinklyTreeEndpoint.BRIGHTNESS), (HSBType) get(TwinklyTreeEndpoint.COLOR),
+                (Integer) get(TwinklyTreeEndpoint.EFFECT), (Integer) get(TwinklyTreeEndpoint.MOVIE));
+    }
+
+    private @Nullable Object get(TwinklyTreeEndpoint endpoint) {
+        Entry entry = entries.get(endpoint);
+        return entry != null ? entry.value : null;
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.twinklytree.internal.dto.LoginResponse;
+import org.openhab.binding.twinklytree.internal.dto.XledResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link TwinklyTreeTokenManager} owns the authentication token of a device. The token is renewed in the
+ * background shortly before it expires, and concurrent requests for a new token share a single login.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeTokenManager {
+
+    /** Part of the token lifetime after which the token is renewed in the background */
+    private static final double RENEWAL_RATIO = 0.9;
+    /** Time to wait for the logout when disposing, before the client is shut down */
+    private static final Duration LOGOUT_TIMEOUT = Duration.ofSeconds(1);
+
+    private final Logger logger = LoggerFactory.getLogger(TwinklyTreeTokenManager.class);
+
+    private final TwinklyTreeClient client;
+    private final ScheduledExecutorService scheduler;
+    private final Consumer<String> tokenListener;
+
+    private @Nullable String token;
+    private long tokenExpiry;
+    private int logins;
+    private @Nullable CompletableFuture<String> pendingLogin;
+    private @Nullable ScheduledFuture<?> renewalJob;
+    private boolean disposed;
+
+    /**
+     * @param tokenListener called with every new token
+     */
+    public TwinklyTreeTokenManager(TwinklyTreeClient client, ScheduledExecutorService scheduler,
+            Consumer<String> tokenListener) {
+        this.client = client;
+        this.scheduler = scheduler;
+        this.tokenListener = tokenListener;
+    }
+
+    /**
+     * Returns the current token, logging in first if there is no valid token.
+     */
+    public synchronized CompletableFuture<String> getToken() {
+        String token = this.token;
+        if (token != null && System.currentTimeMillis() < tokenExpiry) {
+            return CompletableFuture.completedFuture(token);
+        }
+        return login();
+    }
+
+    /**
+     * Discards a token the device has rejected and returns a new one. If the token has already been replaced, the
+     * replacement is returned without another login.
+     */
+    public synchronized CompletableFuture<String> renew(@Nullable String rejectedToken) {
+        if (rejectedToken != null && rejectedToken.equals(token)) {
+            token = null;
+        }
+        return getToken();
+    }
+
+    public synchronized @Nullable String getCurrentToken() {
+        return token;
+    }
+
+    /**
+     * Stops renewing the token and logs out, waiting briefly for the logout so it is sent before the client is
+     * disposed.
+     */
+    public void dispose() {
+        CompletableFuture<XledResponse> logout;
+        synchronized (this) {
+            disposed = true;
+            cancelRenewal();
+            String token = this.token;
+            if (token == null) {
+                return;
+            }
+            logout = client.send(TwinklyTreeEndpoint.LOGOUT, "POST", TwinklyTreeRequests.EMPTY, token,
+                    XledResponse.class);
+            this.token = null;
+        }
+        try {
+            logout.get(LOGOUT_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.debug("Error while logout: {}", e.getMessage());
+        }
+    }
+
+    private synchronized CompletableFuture<String> login() {
+        CompletableFuture<String> pendingLogin = this.pendingLogin;
+        if (pendingLogin != null) {
+            return pendingLogin;
+        }
+        CompletableFuture<String> login = client
+                .send(TwinklyTreeEndpoint.LOGIN, "POST", TwinklyTreeRequests.LOGIN, null, LoginResponse.class)
+                .thenCompose(loginResponse -> {
+                    logger.debug("Twinkly sent login token {} with challenge {}", loginResponse.authenticationToken,
+                            loginResponse.challengeResponse);
+                    return client.send(TwinklyTreeEndpoint.VERIFY, "POST",
+                            TwinklyTreeRequests.verify(loginResponse.challengeResponse),
+                            loginResponse.authenticationToken, XledResponse.class)
+                            .thenApply(verifyResponse -> loginSucceeded(loginResponse));
+                });
+        this.pendingLogin = login;
+        login.whenComplete((newToken, exception) -> {
+            synchronized (this) {
+                this.pendingLogin = null;
+            }
+            if (exception != null) {
+                logger.debug("Error while connecting to twinkly: {}", exception.getMessage());
+            } else {
+                tokenListener.accept(newToken);
+            }
+        });
+        return login;
+    }
+
+    private synchronized String loginSucceeded(LoginResponse loginResponse) {
+        long lifetime = TimeUnit.SECONDS.toMillis(loginResponse.authenticationTokenExpiresIn);
+        if (logins++ > 0) {
+            client.getMetrics().recordRelogin();
+        }
+        token = loginResponse.authenticationToken;
+        tokenExpiry = System.currentTimeMillis() + lifetime;
+        scheduleRenewal((long) (lifetime * RENEWAL_RATIO));
+        return loginResponse.authenticationToken;
+    }
+
+    /**
+     * Renews the token. A failed renewal is retried after the backoff delay of the circuit breaker, so the token is
+     * kept valid once the device is reachable again.
+     */
+    private synchronized void renewInBackground() {
+        logger.debug("Renewing Twinkly token ahead of its expiry");
+        renewalJob = null;
+        login().whenComplete((newToken, exception) -> {
+            if (exception != null) {
+                long delay = client.getCircuitBreaker().getBackoffDelay().toMillis();
+                logger.debug("Retrying Twinkly token renewal in {} ms", delay);
+                scheduleRenewal(delay);
+            }
+        });
+    }
+
+    private synchronized void scheduleRenewal(long delayMillis) {
+        cancelRenewal();
+        if (!disposed) {
+            renewalJob = scheduler.schedule(this::renewInBackground, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void cancelRenewal() {
+        ScheduledFuture<?> renewalJob = this.renewalJob;
+        if (renewalJob != null) {
+            renewalJob.cancel(false);
+            this.renewalJob = null;
+        }
+    }
+}
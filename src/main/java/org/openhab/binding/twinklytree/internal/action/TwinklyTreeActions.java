@@ -0,0 +1,399 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal.action;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeBatchResult;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeClient;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeEffectRenderer.Effect;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeHandler;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeSnapshot;
+import org.openhab.core.automation.annotation.ActionInput;
+import org.openhab.core.automation.annotation.ActionOutput;
+import org.openhab.core.automation.annotation.RuleAction;
+import org.openhab.core.library.types.HSBType;
+import org.openhab.core.thing.binding.ThingActions;
+import org.openhab.core.thing.binding.ThingActionsScope;
+import org.openhab.core.thing.binding.ThingHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link TwinklyTreeActions} provides the rule actions of a Twinkly thing.
+ *
+ * @author Pavion - Initial contribution
+ */
+@ThingActionsScope(name = "twinklytree")
+@NonNullByDefault
+public class TwinklyTreeActions implements ThingActions {
+
+    /**
+     * Number of request timeouts to wait for a snapshot: the login with its verification and the concurrent reads
+     */
+    private static final int SNAPSHOT_TIMEOUT_REQUESTS = 3;
+
+    private final Logger logger = LoggerFactory.getLogger(TwinklyTreeActions.class);
+
+    private @Nullable TwinklyTreeHandler handler;
+
+    @Override
+    public void setThingHandler(@Nullable ThingHandler handler) {
+        if (handler instanceof TwinklyTreeHandler) {
+            this.handler = (TwinklyTreeHandler) handler;
+        }
+    }
+
+    @Override
+    public @Nullable ThingHandler getThingHandler() {
+        return handler;
+    }
+
+    @RuleAction(label = "start realtime streaming", description = "Switches to realtime mode and starts streaming")
+    public @ActionOutput(name = "success",
+            type = "java.util.concurrent.CompletableFuture") CompletableFuture<Boolean> startRealtime(
+                    @ActionInput(name = "fps", label = "Frames per second") int fps) {
+        TwinklyTreeHandler handler = this.handler;
+        if (handler == null) {
+            logger.warn("Twinkly handler is not set");
+            return CompletableFuture.completedFuture(false);
+        }
+        return report("start realtime streaming", handler.startRealtime(fps));
+    }
+
+    @RuleAction(label = "send realtime frame", description = "Sends a frame with the RGB (or RGBW) bytes of every LED")
+    public void sendRealtimeFrame(@ActionInput(name = "frame", label = "Frame") byte[] frame) {
+        TwinklyTreeHandler handler = this.handler;
+        if (handler == null) {
+            logger.warn("Twinkly handler is not set");
+            return;
+        }
+        try {
+            handler.sendRealtimeFrame(frame);
+        } catch (IllegalStateException | IllegalArgumentException e) {
+            logger.warn("Could not send the realtime frame: {}", e.getMessage());
+        }
+    }
+
+    @RuleAction(label = "stop realtime streaming", description = "Stops streaming realtime frames")
+    public void stopRealtime() {
+        TwinklyTreeHandler handler = this.handler;
+        if (handler == null) {
+            logger.warn("Twinkly handler is not set");
+            return;
+        }
+        report("stop realtime streaming", handler.stopRealtime());
+    }
+
+    @RuleAction(label = "upload movie", description = "Uploads frames with the bytes of every LED and plays them")
+    public @ActionOutput(name = "success",
+            type = "java.util.concurrent.CompletableFuture") CompletableFuture<Boolean> uploadMovie(
+                    @ActionInput(name = "frames", label = "Frames") List<byte[]> frames,
+                    @ActionInput(name = "frameDelay", label = "Frame delay in milliseconds") int frameDelay) {
+        TwinklyTreeHandler handler = this.handler;
+        if (handler == null) {
+            logger.warn("Twinkly handler is not set");
+            return CompletableFuture.completedFuture(false);
+        }
+        return report("upload the movie", handler.uploadMovie(frames, frameDelay));
+    }
+
+    @RuleAction(label = "upload movie file", description = "Uploads a file of raw frames as movie and plays it")
+    public @ActionOutput(name = "success",
+            type = "java.util.concurrent.CompletableFuture") CompletableFuture<Boolean> uploadMovieFile(
+                    @ActionInput(name = "path", label = "File path") String path,
+                    @ActionInput(name = "frameDelay", label = "Frame delay in milliseconds") int frameDelay) {
+        TwinklyTreeHandler handler = this.handler;
+        if (handler == null) {
+            logger.warn("Twinkly handler is not set");
+            return CompletableFuture.completedFuture(false);
+        }
+        return report("upload the movie file " + path, handler.uploadMovie(Path.of(path), frameDelay));
+    }
+
+    @RuleAction(label = "start effect", description = "Streams a gradient, sweep, noise or fire effect in realtime")
+    public @ActionOutput(name = "success",
+            type = "java.util.concurrent.CompletableFuture") CompletableFuture<Boolean> startEffect(
+                    @ActionInput(name = "effect", label = "Effect") String effect,
+                    @ActionInput(name = "fps", label = "Frames per second") int fps) {
+        TwinklyTreeHandler handler = this.handler;
+        Effect renderedEffect = parseEffect(effect);
+        if (handler == null) {
+            logger.warn("Twinkly handler is not set");
+            return CompletableFuture.completedFuture(false);
+        }
+        if (renderedEffect == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return report("start the " + effect + " effect", handler.startEffect(renderedEffect, fps));
+    }
+
+    @RuleAction(label = "stop effect", description = "Stops streaming the effect")
+    public void stopEffect() {
+        TwinklyTreeHandler handler = this.handler;
+        if (handler == null) {
+            logger.warn("Twinkly handler is not set");
+            return;
+        }
+        report("stop the effect", handler.stopEffect());
+    }
+
+    @RuleAction(label = "bake effect", description = "Renders a gradient, sweep, noise or fire effect as movie")
+    public @ActionOutput(name = "success",
+            type = "java.util.concurrent.CompletableFuture") CompletableFuture<Boolean> bakeEffect(
+                    @ActionInput(name = "effect", label = "Effect") String effect,
+                    @ActionInput(name = "frames", label = "Number of frames") int frames,
+                    @ActionInput(name = "fps", label = "Frames per second") int fps) {
+        TwinklyTreeHandler handler = this.handler;
+        Effect renderedEffect = parseEffect(effect);
+        if (handler == null) {
+            logger.warn("Twinkly handler is not set");
+            return CompletableFuture.completedFuture(false);
+        }
+        if (renderedEffect == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return report("bake the " + effect + " effect", handler.bakeEffect(renderedEffect, frames, fps));
+    }
+
+    private @Nullable Effect parseEffect(String effect) {
+        try {
+            return Effect.valueOf(effect.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unknown effect {}", effect);
+            return null;
+        }
+    }
+
+    /**
+     * Logs a failure of an action running on the device at warn level.
+     *
+     * @return a future completed with whether the action succeeded
+     */
+    private CompletableFuture<Boolean> report(String action, CompletableFuture<?> result) {
+        return result.handle((value, e) -> {
+            if (e != null) {
+                logger.warn("Twinkly could not {}: {}", action, cause(e).getMessage());
+                return false;
+            }
+            return true;
+        });
+    }
+
+    private static Throwable cause(Throwable e) {
+        Throwable cause = e.getCause();
+        return e instanceof CompletionException && cause != null ? cause : e;
+    }
+
+    @RuleAction(label = "snapshot scene", description = "Reads the current state of the device to be restored later")
+    public @ActionOutput(name = "scene", type = "java.lang.Object") @Nullable TwinklyTreeSnapshot snapshotScene() {
+        TwinklyTreeHandler handler = this.handler;
+        if (handler == null) {
+            logger.warn("Twinkly handler is not set");
+            return null;
+        }
+        Duration timeout = handler.getRequestTimeout().multipliedBy(SNAPSHOT_TIMEOUT_REQUESTS);
+        try {
+            return TwinklyTreeClient.await(handler.snapshotScene(), timeout);
+        } catch (IOException e) {
+            logger.warn("Could not read the scene: {}", e.getMessage());
+            return null;
+        } catch (TimeoutException e) {
+            logger.warn("Timed out reading the scene after {} s", timeout.toSeconds());
+            return null;
+        }
+    }
+
+    @RuleAction(label = "restore scene", description = "Puts back a scene, sending only what has changed")
+    public @ActionOutput(name = "result",
+            type = "java.util.concurrent.CompletableFuture") CompletableFuture<TwinklyTreeBatchResult> restoreScene(
+                    @ActionInput(name = "scene", label = "Scene") @Nullable TwinklyTreeSnapshot scene) {
+        TwinklyTreeHandler handler = this.handler;
+        if (handler == null) {
+            logger.warn("Twinkly handler is not set");
+            return CompletableFuture.failedFuture(new IllegalStateException("Twinkly handler is not set"));
+        }
+        if (scene == null) {
+            logger.warn("No scene to restore");
+            return CompletableFuture.failedFuture(new IllegalArgumentException("No scene to restore"));
+        }
+        return warnOnFailure("restore the scene", handler.restoreScene(scene));
+    }
+
+    @RuleAction(label = "apply batch", description = "Sets mode, brightness, color, effect and movie in one go")
+    public @ActionOutput(name = "result",
+            type = "java.util.concurrent.CompletableFuture") CompletableFuture<TwinklyTreeBatchResult> applyBatch(
+                    @ActionInput(name = "operations", label = "Operations") Map<String, Object> operations) {
+        TwinklyTreeHandler handler = this.handler;
+        if (handler == null) {
+            logger.warn("Twinkly handler is not set");
+            return CompletableFuture.failedFuture(new IllegalStateException("Twinkly handler is not set"));
+        }
+        try {
+            return warnOnFailure("apply the batch", handler.applyBatch(toBatch(operations)));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid batch {}: {}", operations, e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Logs the failure of a batch at warn level. Operations the device rejected are reported in the result instead.
+     */
+    private CompletableFuture<TwinklyTreeBatchResult> warnOnFailure(String action,
+            CompletableFuture<TwinklyTreeBatchResult> result) {
+        return result.whenComplete((value, e) -> {
+            if (e != null) {
+                logger.warn("Twinkly could not {}: {}", action, cause(e).getMessage());
+            } else if (!value.isSuccess()) {
+                logger.warn("Twinkly could not {} completely: {}", action, value);
+            }
+        });
+    }
+
+    /**
+     * Converts operations keyed by mode, brightness, color, effect or movie into the values to write.
+     */
+    private static TwinklyTreeSnapshot toBatch(Map<String, Object> operations) {
+        String mode = null;
+        Integer brightness = null;
+        HSBType color = null;
+        Integer effect = null;
+        Integer movie = null;
+        for (Map.Entry<String, Object> operation : operations.entrySet()) {
+            Object value = operation.getValue();
+            switch (operation.getKey().toLowerCase(Locale.ROOT)) {
+                case "mode":
+                    mode = value.toString();
+                    break;
+                case "brightness":
+                    brightness = toInt(value);
+                    break;
+                case "color":
+                    color = value instanceof HSBType ? (HSBType) value : new HSBType(value.toString());
+                    break;
+                case "effect":
+                    effect = toInt(value);
+                    break;
+                case "movie":
+                    movie = toInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown operation " + operation.getKey());
+            }
+        }
+        return new TwinklyTreeSnapshot(mode, brightness, color, effect, movie);
+    }
+
+    private static int toInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(value.toString().trim());
+    }
+
+    @RuleAction(label = "get movies", description = "Returns the names of the movies stored on the device by id")
+    public @ActionOutput(name = "movies", type = "java.util.Map") Map<Integer, String> getMovies() {
+        TwinklyTreeHandler handler = this.handler;
+        if (handler == null) {
+            logger.warn("Twinkly handler is not set");
+            return Map.of();
+        }
+        return handler.getMovieNames();
+    }
+
+    @RuleAction(label = "get effects", description = "Returns the names of the built-in effects by id")
+    public @ActionOutput(name = "effects", type = "java.util.Map") Map<Integer, String> getEffects() {
+        TwinklyTreeHandler handler = this.handler;
+        if (handler == null) {
+            logger.warn("Twinkly handler is not set");
+            return Map.of();
+        }
+        return handler.getEffectNames();
+    }
+
+    @RuleAction(label = "get playlist", description = "Returns the names of the playlist entries by id")
+    public @ActionOutput(name = "playlist", type = "java.util.Map") Map<Integer, String> getPlaylist() {
+        TwinklyTreeHandler handler = this.handler;
+        if (handler == null) {
+            logger.warn("Twinkly handler is not set");
+            return Map.of();
+        }
+        return handler.getPlaylistNames();
+    }
+
+    public static CompletableFuture<Boolean> startRealtime(ThingActions actions, int fps) {
+        return ((TwinklyTreeActions) actions).startRealtime(fps);
+    }
+
+    public static void sendRealtimeFrame(ThingActions actions, byte[] frame) {
+        ((TwinklyTreeActions) actions).sendRealtimeFrame(frame);
+    }
+
+    public static void stopRealtime(ThingActions actions) {
+        ((TwinklyTreeActions) actions).stopRealtime();
+    }
+
+    public static CompletableFuture<Boolean> uploadMovie(ThingActions actions, List<byte[]> frames, int frameDelay) {
+        return ((TwinklyTreeActions) actions).uploadMovie(frames, frameDelay);
+    }
+
+    public static CompletableFuture<Boolean> uploadMovieFile(ThingActions actions, String path, int frameDelay) {
+        return ((TwinklyTreeActions) actions).uploadMovieFile(path, frameDelay);
+    }
+
+    public static CompletableFuture<Boolean> startEffect(ThingActions actions, String effect, int fps) {
+        return ((TwinklyTreeActions) actions).startEffect(effect, fps);
+    }
+
+    public static void stopEffect(ThingActions actions) {
+        ((TwinklyTreeActions) actions).stopEffect();
+    }
+
+    public static CompletableFuture<Boolean> bakeEffect(ThingActions actions, String effect, int frames, int fps) {
+        return ((TwinklyTreeActions) actions).bakeEffect(effect, frames, fps);
+    }
+
+    public static @Nullable TwinklyTreeSnapshot snapshotScene(ThingActions actions) {
+        return ((TwinklyTreeActions) actions).snapshotScene();
+    }
+
+    public static CompletableFuture<TwinklyTreeBatchResult> restoreScene(ThingActions actions,
+            @Nullable TwinklyTreeSnapshot scene) {
+        return ((TwinklyTreeActions) actions).restoreScene(scene);
+    }
+
+    public static CompletableFuture<TwinklyTreeBatchResult> applyBatch(ThingActions actions,
+            Map<String, Object> operations) {
+        return ((TwinklyTreeActions) actions).applyBatch(operations);
+    }
+
+    public static Map<Integer, String> getMovies(ThingActions actions) {
+        return ((TwinklyTreeActions) actions).getMovies();
+    }
+
+    public static Map<Integer, String> getEffects(ThingActions actions) {
+        return ((TwinklyTreeActions) actions).getEffects();
+    }
+
+    public static Map<Integer, String> getPlaylist(ThingActions actions) {
+        return ((TwinklyTreeActions) actions).getPlaylist();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal.console;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeMetrics;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeMetrics.EndpointMetrics;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeMetricsRegistry;
+import org.openhab.core.io.console.Console;
+import org.openhab.core.io.console.extensions.AbstractConsoleCommandExtension;
+import org.openhab.core.io.console.extensions.ConsoleCommandExtension;
+import org.openhab.core.thing.ThingUID;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * The {@link TwinklyTreeCommandExtension} prints the request metrics of the Twinkly devices on the console.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = ConsoleCommandExtension.class)
+public class TwinklyTreeCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String METRICS = "metrics";
+
+    private final TwinklyTreeMetricsRegistry metricsRegistry;
+
+    @Activate
+    public TwinklyTreeCommandExtension(final @Reference TwinklyTreeMetricsRegistry metricsRegistry) {
+        super("twinklytree", "Show the request metrics of Twinkly devices.");
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length == 0 || !METRICS.equals(args[0]) || args.length > 2) {
+            printUsage(console);
+            return;
+        }
+        Map<ThingUID, TwinklyTreeMetrics> all = metricsRegistry.getAll();
+        if (args.length == 2) {
+            TwinklyTreeMetrics metrics = null;
+            try {
+                metrics = metricsRegistry.get(new ThingUID(args[1]));
+            } catch (IllegalArgumentException e) {
+                console.println("Invalid thing UID " + args[1] + ": " + e.getMessage());
+                return;
+            }
+            if (metrics == null) {
+                console.println("No metrics for Twinkly device " + args[1]);
+                return;
+            }
+            all = Map.of(new ThingUID(args[1]), metrics);
+        } else if (all.isEmpty()) {
+            console.println("No Twinkly devices");
+            return;
+        }
+        all.forEach((thingUID, metrics) -> {
+            EndpointMetrics total = metrics.getTotal();
+            console.println(thingUID + ": " + total);
+            console.println("  " + metrics);
+        });
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return List.of(buildCommandUsage(METRICS + " [<thingUID>]",
+                "show the request metrics of all Twinkly devices or of the given one"));
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal.discovery;
+
+import static org.openhab.binding.twinklytree.internal.TwinklyTreeBindingConstants.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeEndpoint;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeHttpException;
+import org.openhab.binding.twinklytree.internal.dto.FirmwareResponse;
+import org.openhab.binding.twinklytree.internal.dto.GestaltResponse;
+import org.openhab.core.config.discovery.AbstractDiscoveryService;
+import org.openhab.core.config.discovery.DiscoveryResult;
+import org.openhab.core.config.discovery.DiscoveryResultBuilder;
+import org.openhab.core.config.discovery.DiscoveryService;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingTypeUID;
+import org.openhab.core.thing.ThingUID;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * The {@link TwinklyTreeDiscoveryService} finds Twinkly controllers with the xled discovery broadcast. Replies are
+ * collected without blocking within a fixed window, and every device is queried for its gestalt and firmware as soon
+ * as its reply arrives.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+@Component(service = DiscoveryService.class, configurationPid = "discovery.twinklytree")
+public class TwinklyTreeDiscoveryService extends AbstractDiscoveryService {
+
+    static final int DISCOVERY_PORT = 5555;
+
+    private static final Set<ThingTypeUID> SUPPORTED_THING_TYPES = Set.of(THING_TYPE_TWINKLY);
+    private static final byte[] DISCOVERY_MESSAGE = "\u0001discover".getBytes(StandardCharsets.US_ASCII);
+    private static final Duration REPLY_WINDOW = Duration.ofMillis(1500);
+    private static final Duration LOOKUP_TIMEOUT = Duration.ofSeconds(2);
+    private static final int SEARCH_TIME = 5;
+
+    private final Logger logger = LoggerFactory.getLogger(TwinklyTreeDiscoveryService.class);
+
+    private final InetSocketAddress broadcastAddress;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(LOOKUP_TIMEOUT).build();
+    private final Gson gson = new Gson();
+
+    public TwinklyTreeDiscoveryService() {
+        this(new InetSocketAddress("255.255.255.255", DISCOVERY_PORT));
+    }
+
+    TwinklyTreeDiscoveryService(InetSocketAddress broadcastAddress) {
+        super(SUPPORTED_THING_TYPES, SEARCH_TIME, false);
+        this.broadcastAddress = broadcastAddress;
+    }
+
+    @Override
+    @Deactivate
+    protected void deactivate() {
+        super.deactivate();
+        httpClient.shutdownNow();
+    }
+
+    @Override
+    protected void startScan() {
+        scheduler.execute(this::scan);
+    }
+
+    void scan() {
+        List<CompletableFuture<Void>> lookups = new ArrayList<>();
+        Map<String, String> devices = collectReplies((host, name) -> lookups.add(lookup(host, name)));
+        logger.debug("Twinkly discovery found {} devices", devices.size());
+        try {
+            CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new)).get(LOOKUP_TIMEOUT.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            logger.debug("Not all Twinkly devices could be queried: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sends the discovery broadcast and collects the replies until the reply window has passed.
+     *
+     * @param onReply called with the host address and name of every device on its first reply
+     * @return the names of the devices that answered by host address
+     */
+    Map<String, String> collectReplies(BiConsumer<String, String> onReply) {
+        Map<String, String> devices = new LinkedHashMap<>();
+        try (DatagramChannel channel = DatagramChannel.open(); Selector selector = Selector.open()) {
+            channel.setOption(StandardSocketOptions.SO_BROADCAST, true);
+            channel.bind(null);
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ);
+            channel.send(ByteBuffer.wrap(DISCOVERY_MESSAGE), broadcastAddress);
+
+            ByteBuffer buffer = ByteBuffer.allocate(512);
+            long deadline = System.nanoTime() + REPLY_WINDOW.toNanos();
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > 0) {
+                if (selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining))) == 0) {
+                    continue;
+                }
+                selector.selectedKeys().clear();
+                SocketAddress sender;
+                while ((sender = channel.receive(buffer.clear())) != null) {
+                    buffer.flip();
+                    String name = parseReply(buffer);
+                    if (name != null && sender instanceof InetSocketAddress) {
+                        String host = ((InetSocketAddress) sender).getAddress().getHostAddress();
+                        if (devices.put(host, name) == null) {
+                            onReply.accept(host, name);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.debug("Twinkly discovery failed: {}", e.getMessage());
+        }
+        return devices;
+    }
+
+    /**
+     * Parses a discovery reply: four bytes of IP address, "OK" and the zero terminated device name.
+     *
+     * @return the device name, or <code>null</code> if the reply is not a valid Twinkly reply
+     */
+    static @Nullable String parseReply(ByteBuffer reply) {
+        int position = reply.position();
+        if (reply.remaining() < 6 || reply.get(position + 4) != 'O' || reply.get(position + 5) != 'K') {
+            return null;
+        }
+        int start = position + 6;
+        int end = start;
+        while (end < reply.limit() && reply.get(end) != 0) {
+            end++;
+        }
+        byte[] name = new byte[end - start];
+        reply.get(start, name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    private CompletableFuture<Void> lookup(String host, String name) {
+        CompletableFuture<GestaltResponse> gestalt = get(host, TwinklyTreeEndpoint.GESTALT, GestaltResponse.class);
+        CompletableFuture<FirmwareResponse> firmware = get(host, TwinklyTreeEndpoint.FIRMWARE,
+                FirmwareResponse.class);
+        return gestalt.thenCombine(firmware, (gestaltResponse, firmwareResponse) -> {
+            thingDiscovered(createResult(host, name, gestaltResponse, firmwareResponse));
+            return (Void) null;
+        }).exceptionally(e -> {
+            logger.debug("Could not query Twinkly at {}: {}", host, e.getMessage());
+            return null;
+        });
+    }
+
+    private DiscoveryResult createResult(String host, String name, GestaltResponse gestalt,
+            FirmwareResponse firmware) {
+        String mac = gestalt.mac.isEmpty() ? host : gestalt.mac;
+        ThingUID thingUID = new ThingUID(THING_TYPE_TWINKLY,
+                mac.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT));
+        String label = gestalt.deviceName.isEmpty() ? name : gestalt.deviceName;
+        return DiscoveryResultBuilder.create(thingUID).withLabel("Twinkly " + label) //
+                .withProperty(CONFIG_HOST, host) //
+                .withProperty(Thing.PROPERTY_MAC_ADDRESS, mac) //
+                .withProperty(Thing.PROPERTY_MODEL_ID, gestalt.productCode) //
+                .withProperty(Thing.PROPERTY_FIRMWARE_VERSION, firmware.version) //
+                .withProperty(PROPERTY_LED_COUNT, gestalt.numberOfLed) //
+                .withRepresentationProperty(Thing.PROPERTY_MAC_ADDRESS) //
+                .build();
+    }
+
+    private <T> CompletableFuture<T> get(String host, TwinklyTreeEndpoint endpoint, Class<T> responseType) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + host + endpoint.getPath()))
+                .timeout(LOOKUP_TIMEOUT).GET().build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(response -> decode(response, responseType));
+    }
+
+    private <T> T decode(HttpResponse<InputStream> response, Class<T> responseType) {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8))) {
+            if (response.statusCode() / 100 != 2) {
+                throw new TwinklyTreeHttpException("Request " + response.uri() + " failed with HTTP status "
+                        + response.statusCode(), response.statusCode());
+            }
+            T result = gson.fromJson(reader, responseType);
+            if (result == null) {
+                throw new IOException("Empty response");
+            }
+            return result;
+        } catch (IOException | JsonParseException e) {
+            throw new CompletionException(e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal.dto;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * The {@link EffectResponse} is the response of <code>/xled/v1/led/effects/current</code>.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class EffectResponse extends XledResponse {
+
+    @SerializedName("preset_id")
+    public @Nullable Integer presetId;
+    @SerializedName("effect_id")
+    public @Nullable Integer effectId;
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal.dto;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * The {@link GestaltResponse} is the response of <code>/xled/v1/gestalt</code>.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class GestaltResponse extends XledResponse {
+
+    @SerializedName("device_name")
+    public String deviceName = "";
+    @SerializedName("product_code")
+    public String productCode = "";
+    @SerializedName("hw_id")
+    public String hardwareId = "";
+    public String mac = "";
+    @SerializedName("number_of_led")
+    public int numberOfLed;
+    @SerializedName("bytes_per_led")
+    public int bytesPerLed = 3;
+    @SerializedName("led_profile")
+    public String ledProfile = "";
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal.dto;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * The {@link LayoutResponse} is the response of <code>/xled/v1/led/layout/full</code>, the position of every LED.
+ * The coordinates are decoded straight into primitive arrays: x and z from -1 to 1, y from 0 to 1.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+@JsonAdapter(LayoutResponse.Adapter.class)
+public class LayoutResponse extends XledResponse {
+
+    public String source = "";
+    public float[] x = new float[0];
+    public float[] y = new float[0];
+    public float[] z = new float[0];
+
+    public int size() {
+        return x.length;
+    }
+
+    /**
+     * Decodes the coordinates without creating an object per LED.
+     */
+    public static class Adapter extends TypeAdapter<LayoutResponse> {
+
+        @Override
+        public @Nullable LayoutResponse read(JsonReader in) throws IOException {
+            LayoutResponse layout = new LayoutResponse();
+            float[] x = new float[256];
+            float[] y = new float[256];
+            float[] z = new float[256];
+            int size = 0;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "source":
+                        layout.source = in.nextString();
+                        break;
+                    case "code":
+                        layout.code = in.nextInt();
+                        break;
+                    case "coordinates":
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            if (size == x.length) {
+                                x = Arrays.copyOf(x, size * 2);
+                                y = Arrays.copyOf(y, size * 2);
+                                z = Arrays.copyOf(z, size * 2);
+                            }
+                            in.beginObject();
+                            while (in.hasNext()) {
+                                switch (in.nextName()) {
+                                    case "x":
+                                        x[size] = (float) in.nextDouble();
+                                        break;
+                                    case "y":
+                                        y[size] = (float) in.nextDouble();
+                                        break;
+                                    case "z":
+                                        z[size] = (float) in.nextDouble();
+                                        break;
+                                    default:
+                                        in.skipValue();
+                                }
+                            }
+                            in.endObject();
+                            size++;
+                        }
+                        in.endArray();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            layout.x = Arrays.copyOf(x, size);
+            layout.y = Arrays.copyOf(y, size);
+            layout.z = Arrays.copyOf(z, size);
+            return layout;
+        }
+
+        @Override
+        public void write(JsonWriter out, @Nullable LayoutResponse layout) throws IOException {
+            if (layout == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject().name("source").value(layout.source).name("coordinates").beginArray();
+            for (int i = 0; i < layout.size(); i++) {
+                out.beginObject().name("x").value(layout.x[i]).name("y").value(layout.y[i]).name("z")
+                        .value(layout.z[i]).endObject();
+            }
+            out.endArray().name("code").value(layout.code).endObject();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal.dto;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * The {@link MovieUploadResponse} is the response of <code>/xled/v1/led/movie/full</code>.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class MovieUploadResponse extends XledResponse {
+
+    @SerializedName("frames_number")
+    public int framesNumber;
+}
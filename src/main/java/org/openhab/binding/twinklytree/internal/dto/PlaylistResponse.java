@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal.dto;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link PlaylistResponse} is the response of <code>/xled/v1/playlist</code>.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class PlaylistResponse extends XledResponse {
+
+    public static class Entry {
+        public int id;
+        public String name = "";
+        public int duration;
+    }
+
+    public List<Entry> entries = List.of();
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal.dto;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link XledResponse} holds the result code every xled response carries.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class XledResponse {
+
+    public static final int CODE_OK = 1000;
+
+    /**
+     * The xled result code, left at {@link #CODE_OK} if a response does not carry one.
+     */
+    public int code = CODE_OK;
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import static org.openhab.binding.twinklytree.internal.TwinklyTreeBindingConstants.*;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.config.core.Configuration;
+import org.openhab.core.thing.Channel;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.Thing;
+import org.openhab.core.thing.ThingStatusInfo;
+import org.openhab.core.thing.ThingUID;
+import org.openhab.core.thing.binding.ThingHandlerCallback;
+import org.openhab.core.thing.binding.builder.ChannelBuilder;
+import org.openhab.core.thing.binding.builder.ThingBuilder;
+
+/**
+ * The {@link HandlerFixture} creates {@link TwinklyTreeHandler}s outside of the framework. All channels count as
+ * linked, status updates are applied to the thing and state updates are dropped.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+final class HandlerFixture {
+
+    private static final Map<String, String> CHANNELS = Map.of(CHANNEL_SWITCH, "Switch", CHANNEL_DIMMER, "Dimmer",
+            CHANNEL_MODE, "String", CHANNEL_CURRENT_EFFECT, "Number", CHANNEL_CURRENT_MOVIE, "Number", CHANNEL_COLOR,
+            "Color");
+
+    private HandlerFixture() {
+    }
+
+    /**
+     * Creates and initializes a handler for the device at the given host.
+     *
+     * @param refresh the refresh interval in seconds, 0 to disable polling
+     * @param stateFreshness the seconds a value is served from the state cache, 0 to read the device on every refresh
+     */
+    @SuppressWarnings("null")
+    static TwinklyTreeHandler create(String id, String host, int refresh, int stateFreshness,
+            TwinklyTreeMetricsRegistry registry) {
+        ThingUID thingUID = new ThingUID(THING_TYPE_TWINKLY, id);
+        List<Channel> channels = new ArrayList<>();
+        CHANNELS.forEach((channelId, itemType) -> channels
+                .add(ChannelBuilder.create(new ChannelUID(thingUID, channelId), itemType).build()));
+        Thing thing = ThingBuilder.create(THING_TYPE_TWINKLY, thingUID)
+                .withConfiguration(new Configuration(Map.of(CONFIG_HOST, host, "refresh", new BigDecimal(refresh),
+                        "stateFreshness", new BigDecimal(stateFreshness))))
+                .withChannels(channels).build();
+
+        // without event publisher and link registry the state descriptions are only kept, not published
+        TwinklyTreeHandler handler = new TwinklyTreeHandler(thing, registry,
+                new TwinklyTreeStateDescriptionProvider(null, null, null));
+        handler.setCallback(createCallback());
+        handler.initialize();
+        return handler;
+    }
+
+    private static ThingHandlerCallback createCallback() {
+        return (ThingHandlerCallback) Proxy.newProxyInstance(HandlerFixture.class.getClassLoader(),
+                new Class<?>[] { ThingHandlerCallback.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "statusUpdated":
+                            ((Thing) args[0]).setStatusInfo((ThingStatusInfo) args[1]);
+                            return null;
+                        case "isChannelLinked":
+                            return true;
+                        default:
+                            return method.getReturnType() == boolean.class ? false : null;
+                    }
+                });
+    }
+}
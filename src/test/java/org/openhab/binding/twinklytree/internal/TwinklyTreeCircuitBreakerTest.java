@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeCircuitBreaker.State;
+
+/**
+ * Tests the state transitions and retry delays of the {@link TwinklyTreeCircuitBreaker} with a manual clock.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeCircuitBreakerTest {
+
+    private static final Duration BASE_DELAY = Duration.ofSeconds(10);
+    private static final Duration MAX_DELAY = Duration.ofSeconds(60);
+
+    private long now = 1000;
+    private double random = 0.5;
+
+    private final TwinklyTreeCircuitBreaker breaker = new TwinklyTreeCircuitBreaker(BASE_DELAY, MAX_DELAY,
+            () -> now, () -> random);
+
+    @Test
+    public void opensAfterThreeConsecutiveFailures() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        assertEquals(State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordFailure();
+        assertEquals(State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        assertEquals(BASE_DELAY, breaker.getRetryDelay());
+    }
+
+    @Test
+    public void successResetsFailureCount() {
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+
+        assertEquals(State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void letsOneProbeThroughAfterRetryDelay() {
+        open();
+        advance(BASE_DELAY.minusNanos(1));
+        assertFalse(breaker.allowRequest());
+        assertEquals(Duration.ofNanos(1), breaker.getRetryDelay());
+
+        advance(Duration.ofNanos(1));
+        assertTrue(breaker.allowRequest());
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+        assertEquals(Duration.ZERO, breaker.getRetryDelay());
+    }
+
+    @Test
+    public void closesAfterSuccessfulProbe() {
+        open();
+        advance(BASE_DELAY);
+        assertTrue(breaker.allowRequest());
+
+        breaker.recordSuccess();
+        assertEquals(State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertEquals(Duration.ZERO, breaker.getRetryDelay());
+    }
+
+    @Test
+    public void doublesDelayAfterFailedProbeUpToMaximum() {
+        open();
+        for (long seconds : new long[] { 20, 40, 60, 60 }) {
+            advance(breaker.getRetryDelay());
+            assertTrue(breaker.allowRequest());
+            breaker.recordFailure();
+            assertEquals(State.OPEN, breaker.getState());
+            assertEquals(Duration.ofSeconds(seconds), breaker.getRetryDelay());
+        }
+    }
+
+    @Test
+    public void resetsDelayAfterRecovery() {
+        open();
+        advance(BASE_DELAY);
+        breaker.allowRequest();
+        breaker.recordFailure();
+        advance(breaker.getRetryDelay());
+        breaker.allowRequest();
+        breaker.recordSuccess();
+
+        open();
+        assertEquals(BASE_DELAY, breaker.getRetryDelay());
+    }
+
+    @Test
+    public void jittersDelayByTwentyPercent() {
+        random = 0;
+        open();
+        assertEquals(Duration.ofSeconds(8), breaker.getRetryDelay());
+
+        breaker.recordSuccess();
+        random = 0.75;
+        open();
+        assertEquals(Duration.ofSeconds(11), breaker.getRetryDelay());
+    }
+
+    @Test
+    public void reportsBackoffDelayInEveryState() {
+        assertEquals(BASE_DELAY, breaker.getBackoffDelay());
+        open();
+        advance(Duration.ofSeconds(4));
+        assertEquals(Duration.ofSeconds(6), breaker.getBackoffDelay());
+
+        advance(Duration.ofSeconds(6));
+        assertTrue(breaker.allowRequest());
+        assertEquals(BASE_DELAY, breaker.getBackoffDelay());
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+        assertEquals(State.OPEN, breaker.getState());
+    }
+
+    private void advance(Duration duration) {
+        now += duration.toNanos();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.twinklytree.internal.dto.BrightnessResponse;
+import org.openhab.binding.twinklytree.internal.dto.XledResponse;
+
+/**
+ * Smoke tests of the {@link TwinklyTreeClient} and the {@link TwinklyTreeTokenManager} against the
+ * {@link XledSimulator}.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeClientTest {
+
+    private @Nullable XledSimulator simulator;
+    private @Nullable ScheduledExecutorService scheduler;
+    private @Nullable TwinklyTreeClient client;
+    private @Nullable TwinklyTreeTokenManager tokenManager;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        XledSimulator simulator = new XledSimulator();
+        this.simulator = simulator;
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        this.scheduler = scheduler;
+        TwinklyTreeClient client = new TwinklyTreeClient("test", URI.create("http://" + simulator.getHost()),
+                Duration.ofSeconds(1), Duration.ofSeconds(1),
+                new TwinklyTreeCircuitBreaker(Duration.ofSeconds(1), Duration.ofSeconds(10)), new TwinklyTreeMetrics());
+        this.client = client;
+        tokenManager = new TwinklyTreeTokenManager(client, scheduler, token -> {
+        });
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TwinklyTreeTokenManager tokenManager = this.tokenManager;
+        if (tokenManager != null) {
+            tokenManager.dispose();
+        }
+        TwinklyTreeClient client = this.client;
+        if (client != null) {
+            client.dispose();
+        }
+        ScheduledExecutorService scheduler = this.scheduler;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        XledSimulator simulator = this.simulator;
+        if (simulator != null) {
+            simulator.close();
+        }
+    }
+
+    @Test
+    public void setsAndReadsTheBrightness() throws IOException {
+        String token = TwinklyTreeClient.await(getTokenManager().getToken());
+        TwinklyTreeClient.await(getClient().send(TwinklyTreeEndpoint.BRIGHTNESS, "POST",
+                TwinklyTreeRequests.brightness(40), token, XledResponse.class));
+        BrightnessResponse response = TwinklyTreeClient
+                .await(getClient().send(TwinklyTreeEndpoint.BRIGHTNESS, "GET", null, token, BrightnessResponse.class));
+
+        assertEquals(40, response.value);
+        assertEquals(40, getSimulator().getBrightness());
+        assertEquals(1, getSimulator().getLoginCount());
+    }
+
+    @Test
+    public void reusesTheTokenUntilItIsRejected() throws IOException {
+        String token = TwinklyTreeClient.await(getTokenManager().getToken());
+        assertEquals(token, TwinklyTreeClient.await(getTokenManager().getToken()));
+
+        getSimulator().expireTokens();
+        assertThrows(TwinklyTreeHttpException.class, () -> TwinklyTreeClient.await(getClient()
+                .send(TwinklyTreeEndpoint.BRIGHTNESS, "GET", null, token, BrightnessResponse.class)));
+        String renewed = TwinklyTreeClient.await(getTokenManager().renew(token));
+
+        assertNotEquals(token, renewed);
+        assertEquals(2, getSimulator().getLoginCount());
+    }
+
+    @Test
+    public void logsOutBeforeTheClientIsDisposed() throws IOException {
+        TwinklyTreeClient.await(getTokenManager().getToken());
+        getTokenManager().dispose();
+        getClient().dispose();
+
+        assertEquals(1, getSimulator().getLogoutCount());
+    }
+
+    @Test
+    public void retriesFailedRenewal() throws Exception {
+        getSimulator().withTokenLifetime(1);
+        TwinklyTreeClient.await(getTokenManager().getToken());
+        getSimulator().setOffline(true);
+        Thread.sleep(1500);
+        assertEquals(1, getSimulator().getLoginCount());
+
+        getSimulator().setOffline(false);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (getSimulator().getLoginCount() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, getSimulator().getLoginCount());
+    }
+
+    @Test
+    public void stopsWaitingAfterTimeout() {
+        assertThrows(TimeoutException.class,
+                () -> TwinklyTreeClient.await(new CompletableFuture<Void>(), Duration.ofMillis(10)));
+    }
+
+    private XledSimulator getSimulator() {
+        XledSimulator simulator = this.simulator;
+        assertNotNull(simulator);
+        return simulator;
+    }
+
+    private TwinklyTreeClient getClient() {
+        TwinklyTreeClient client = this.client;
+        assertNotNull(client);
+        return client;
+    }
+
+    private TwinklyTreeTokenManager getTokenManager() {
+        TwinklyTreeTokenManager tokenManager = this.tokenManager;
+        assertNotNull(tokenManager);
+        return tokenManager;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeCommandQueue.DeviceTask;
+
+/**
+ * Tests that the {@link TwinklyTreeCommandCoalescer} always sends the last value. The first write blocks the device
+ * thread until the test releases it, so the later writes are submitted while it is in flight.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeCommandCoalescerTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final TwinklyTreeCommandQueue commandQueue = new TwinklyTreeCommandQueue("test");
+    private final TwinklyTreeMetrics metrics = new TwinklyTreeMetrics();
+    private final TwinklyTreeCommandCoalescer coalescer = new TwinklyTreeCommandCoalescer(commandQueue, scheduler,
+            metrics, 1000);
+
+    private final List<Integer> sent = new CopyOnWriteArrayList<>();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        coalescer.dispose();
+        commandQueue.dispose();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void sendsLastValueAfterWriteInFlight() throws Exception {
+        CompletableFuture<Void> first = coalescer.submit(TwinklyTreeEndpoint.BRIGHTNESS, blockingWrite(1));
+        awaitStarted();
+        CompletableFuture<Void> second = coalescer.submit(TwinklyTreeEndpoint.BRIGHTNESS, write(2));
+        CompletableFuture<Void> third = coalescer.submit(TwinklyTreeEndpoint.BRIGHTNESS, write(3));
+        CompletableFuture<Void> last = coalescer.submit(TwinklyTreeEndpoint.BRIGHTNESS, write(4));
+        release.countDown();
+
+        last.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertTrue(first.isDone());
+        assertSame(last, second);
+        assertSame(last, third);
+        assertEquals(List.of(1, 4), sent);
+        assertEquals(2, metrics.getCoalesced());
+    }
+
+    @Test
+    public void sendsLastValueOfEveryEndpoint() throws Exception {
+        coalescer.submit(TwinklyTreeEndpoint.BRIGHTNESS, blockingWrite(1));
+        awaitStarted();
+        coalescer.submit(TwinklyTreeEndpoint.BRIGHTNESS, write(2));
+        coalescer.submit(TwinklyTreeEndpoint.COLOR, write(10));
+        CompletableFuture<Void> brightness = coalescer.submit(TwinklyTreeEndpoint.BRIGHTNESS, write(3));
+        CompletableFuture<Void> color = coalescer.submit(TwinklyTreeEndpoint.COLOR, write(11));
+        release.countDown();
+
+        CompletableFuture.allOf(brightness, color).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertEquals(3, sent.size());
+        assertEquals(List.of(1), sent.subList(0, 1));
+        assertTrue(sent.containsAll(List.of(3, 11)));
+    }
+
+    @Test
+    public void failsSupersededWritesWithFailureOfLastValue() throws Exception {
+        coalescer.submit(TwinklyTreeEndpoint.BRIGHTNESS, blockingWrite(1));
+        awaitStarted();
+        CompletableFuture<Void> superseded = coalescer.submit(TwinklyTreeEndpoint.BRIGHTNESS, write(2));
+        coalescer.submit(TwinklyTreeEndpoint.BRIGHTNESS, () -> {
+            throw new IOException("rejected");
+        });
+        release.countDown();
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> superseded.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IOException);
+        assertEquals(List.of(1), sent);
+    }
+
+    @Test
+    public void failsPendingWritesOnDispose() throws Exception {
+        coalescer.submit(TwinklyTreeEndpoint.BRIGHTNESS, blockingWrite(1));
+        awaitStarted();
+        CompletableFuture<Void> pending = coalescer.submit(TwinklyTreeEndpoint.BRIGHTNESS, write(2));
+        coalescer.dispose();
+        release.countDown();
+
+        assertThrows(ExecutionException.class, () -> pending.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(List.of(1), sent);
+    }
+
+    private DeviceTask write(int value) {
+        return () -> sent.add(value);
+    }
+
+    private DeviceTask blockingWrite(int value) {
+        return () -> {
+            sent.add(value);
+            started.countDown();
+            try {
+                release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private void awaitStarted() throws InterruptedException {
+        assertTrue(started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.openhab.binding.twinklytree.internal.TwinklyTreeBindingConstants.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.thing.ThingStatus;
+
+/**
+ * Smoke tests of the {@link TwinklyTreeHandler} against the {@link XledSimulator}.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeHandlerTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    private @Nullable XledSimulator simulator;
+    private @Nullable TwinklyTreeHandler handler;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        XledSimulator simulator = new XledSimulator();
+        this.simulator = simulator;
+        handler = HandlerFixture.create("test", simulator.getHost(), 0, 0, new TwinklyTreeMetricsRegistry());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TwinklyTreeHandler handler = this.handler;
+        if (handler != null) {
+            handler.dispose();
+        }
+        XledSimulator simulator = this.simulator;
+        if (simulator != null) {
+            simulator.close();
+        }
+    }
+
+    @Test
+    public void goesOnlineAfterWarmUp() throws Exception {
+        awaitStatus(ThingStatus.ONLINE);
+    }
+
+    @Test
+    public void appliesCommandsToTheDevice() throws Exception {
+        TwinklyTreeHandler handler = getHandler();
+        handler.applyCommand(CHANNEL_DIMMER, new PercentType(40)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        handler.applyCommand(CHANNEL_MODE, new StringType(MODE_COLOR)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(40, getSimulator().getBrightness());
+        assertEquals(MODE_COLOR, getSimulator().getMode());
+    }
+
+    @Test
+    public void goesOfflineWhenTheDeviceIsUnreachable() throws Exception {
+        awaitStatus(ThingStatus.ONLINE);
+        getSimulator().setOffline(true);
+
+        assertThrows(IOException.class, () -> TwinklyTreeClient.await(getHandler().refreshLinkedChannels()));
+        assertEquals(ThingStatus.OFFLINE, getHandler().getThing().getStatus());
+    }
+
+    private void awaitStatus(ThingStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        while (getHandler().getThing().getStatus() != status && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(status, getHandler().getThing().getStatus());
+    }
+
+    private TwinklyTreeHandler getHandler() {
+        TwinklyTreeHandler handler = this.handler;
+        assertNotNull(handler);
+        return handler;
+    }
+
+    private XledSimulator getSimulator() {
+        XledSimulator simulator = this.simulator;
+        assertNotNull(simulator);
+        return simulator;
+    }
+}
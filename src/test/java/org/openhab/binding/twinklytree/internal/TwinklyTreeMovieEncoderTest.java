@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the movie payload packed by the {@link TwinklyTreeMovieEncoder} byte for byte.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeMovieEncoderTest {
+
+    @Test
+    public void packsFramesOneAfterTheOther() {
+        TwinklyTreeMovieEncoder encoder = new TwinklyTreeMovieEncoder(2, 3);
+        encoder.begin(2);
+        encoder.addFrame(new byte[] { 1, 2, 3, 4, 5, 6 });
+        encoder.addFrame(new byte[] { 7, 8, 9, 10, 11, 12, 99 });
+
+        assertEquals(2, encoder.getFrameCount());
+        assertArrayEquals(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12 }, payload(encoder));
+    }
+
+    @Test
+    public void packsRgbwFrames() {
+        TwinklyTreeMovieEncoder encoder = new TwinklyTreeMovieEncoder(1, 4);
+        encoder.begin(1);
+        encoder.addFrame(new byte[] { 1, 2, 3, 4 });
+
+        assertArrayEquals(new byte[] { 1, 2, 3, 4 }, payload(encoder));
+    }
+
+    @Test
+    public void reusesBufferForSmallerMovie() {
+        TwinklyTreeMovieEncoder encoder = new TwinklyTreeMovieEncoder(1, 3);
+        encoder.begin(2);
+        encoder.addFrame(new byte[] { 1, 2, 3 });
+        encoder.addFrame(new byte[] { 4, 5, 6 });
+        encoder.begin(1);
+        encoder.addFrame(new byte[] { 7, 8, 9 });
+
+        assertEquals(1, encoder.getFrameCount());
+        assertArrayEquals(new byte[] { 7, 8, 9 }, payload(encoder));
+    }
+
+    @Test
+    public void rejectsShortFrame() {
+        TwinklyTreeMovieEncoder encoder = new TwinklyTreeMovieEncoder(2, 3);
+        encoder.begin(1);
+        assertThrows(IllegalArgumentException.class, () -> encoder.addFrame(new byte[5]));
+    }
+
+    @Test
+    public void rejectsFrameBeyondMovie() {
+        TwinklyTreeMovieEncoder encoder = new TwinklyTreeMovieEncoder(1, 3);
+        encoder.begin(1);
+        encoder.addFrame(new byte[3]);
+        assertThrows(IllegalStateException.class, () -> encoder.addFrame(new byte[3]));
+    }
+
+    @Test
+    public void readsFileIgnoringIncompleteFrame() throws IOException {
+        Path file = Files.createTempFile("twinklytree", ".bin");
+        try {
+            Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+            TwinklyTreeMovieEncoder encoder = new TwinklyTreeMovieEncoder(1, 3);
+
+            assertEquals(2, encoder.readFile(file));
+            assertEquals(2, encoder.getFrameCount());
+            assertArrayEquals(new byte[] { 1, 2, 3, 4, 5, 6 }, payload(encoder));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static byte[] payload(TwinklyTreeMovieEncoder encoder) {
+        ByteBuffer payload = encoder.getPayload();
+        byte[] bytes = new byte[payload.remaining()];
+        payload.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Base64;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.twinklytree.internal.TwinklyTreeRealtimeStreamer.Protocol;
+
+/**
+ * Tests the realtime packets sent by the {@link TwinklyTreeRealtimeStreamer} byte for byte.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeRealtimeStreamerTest {
+
+    private static final byte[] TOKEN = { 1, 2, 3, 4, 5, 6, 7, 8 };
+
+    private @Nullable DatagramSocket receiver;
+    private @Nullable TwinklyTreeRealtimeStreamer streamer;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        DatagramSocket receiver = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        receiver.setSoTimeout(2000);
+        this.receiver = receiver;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        TwinklyTreeRealtimeStreamer streamer = this.streamer;
+        if (streamer != null) {
+            streamer.dispose();
+        }
+        DatagramSocket receiver = this.receiver;
+        if (receiver != null) {
+            receiver.close();
+        }
+    }
+
+    @Test
+    public void sendsV1PacketWithLedCount() throws IOException {
+        byte[] frame = frame(10 * 3);
+        stream(Protocol.V1, 10, frame);
+
+        assertArrayEquals(concat(new byte[] { 1 }, TOKEN, new byte[] { 10 }, frame), receive());
+    }
+
+    @Test
+    public void sendsV2PacketWithoutLedCount() throws IOException {
+        byte[] frame = frame(300 * 3);
+        stream(Protocol.V2, 300, frame);
+
+        assertArrayEquals(concat(new byte[] { 2 }, TOKEN, new byte[] { 0 }, frame), receive());
+    }
+
+    @Test
+    public void sendsV3FrameInFragmentsOf900Bytes() throws IOException {
+        byte[] frame = frame(700 * 3);
+        stream(Protocol.V3, 700, frame);
+
+        assertArrayEquals(concat(new byte[] { 3 }, TOKEN, new byte[] { 0, 0, 0 }, Arrays.copyOfRange(frame, 0, 900)),
+                receive());
+        assertArrayEquals(
+                concat(new byte[] { 3 }, TOKEN, new byte[] { 0, 0, 1 }, Arrays.copyOfRange(frame, 900, 1800)),
+                receive());
+        assertArrayEquals(
+                concat(new byte[] { 3 }, TOKEN, new byte[] { 0, 0, 2 }, Arrays.copyOfRange(frame, 1800, 2100)),
+                receive());
+    }
+
+    @Test
+    public void sendsV3FrameOf900BytesAsOneFragment() throws IOException {
+        byte[] frame = frame(300 * 3);
+        stream(Protocol.V3, 300, frame);
+
+        assertArrayEquals(concat(new byte[] { 3 }, TOKEN, new byte[] { 0, 0, 0 }, frame), receive());
+        assertArrayEquals(concat(new byte[] { 3 }, TOKEN, new byte[] { 0, 0, 0 }, frame), receive());
+    }
+
+    @Test
+    public void rejectsShortFrame() throws IOException {
+        TwinklyTreeRealtimeStreamer streamer = createStreamer(Protocol.V1, 10);
+        assertThrows(IllegalArgumentException.class, () -> streamer.submitFrame(new byte[29]));
+    }
+
+    @Test
+    public void selectsProtocolForFirmware() {
+        assertEquals(Protocol.V1, Protocol.forFirmware("2.3.8", 250));
+        assertEquals(Protocol.V2, Protocol.forFirmware("2.3.8", 600));
+        assertEquals(Protocol.V3, Protocol.forFirmware("2.4.14", 250));
+        assertEquals(Protocol.V3, Protocol.forFirmware("2.10.0", 600));
+    }
+
+    private void stream(Protocol protocol, int ledCount, byte[] frame) throws IOException {
+        TwinklyTreeRealtimeStreamer streamer = createStreamer(protocol, ledCount);
+        streamer.setToken(Base64.getEncoder().encodeToString(TOKEN));
+        streamer.submitFrame(frame);
+        streamer.start(10);
+    }
+
+    private TwinklyTreeRealtimeStreamer createStreamer(Protocol protocol, int ledCount) throws IOException {
+        DatagramSocket receiver = this.receiver;
+        assertNotNull(receiver);
+        TwinklyTreeRealtimeStreamer streamer = new TwinklyTreeRealtimeStreamer("test",
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), receiver.getLocalPort()), protocol, ledCount,
+                3);
+        this.streamer = streamer;
+        return streamer;
+    }
+
+    private byte[] receive() throws IOException {
+        DatagramSocket receiver = this.receiver;
+        assertNotNull(receiver);
+        DatagramPacket packet = new DatagramPacket(new byte[2048], 2048);
+        receiver.receive(packet);
+        return Arrays.copyOf(packet.getData(), packet.getLength());
+    }
+
+    private static byte[] frame(int size) {
+        byte[] frame = new byte[size];
+        for (int i = 0; i < size; i++) {
+            frame[i] = (byte) (i * 7);
+        }
+        return frame;
+    }
+
+    private static byte[] concat(byte[]... parts) {
+        byte[] result = new byte[Arrays.stream(parts).mapToInt(part -> part.length).sum()];
+        int position = 0;
+        for (byte[] part : parts) {
+            System.arraycopy(part, 0, result, position, part.length);
+            position += part.length;
+        }
+        return result;
+    }
+}
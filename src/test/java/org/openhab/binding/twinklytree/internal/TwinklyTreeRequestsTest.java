@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.openhab.binding.twinklytree.internal.TwinklyTreeBindingConstants.*;
+
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the request bodies encoded by {@link TwinklyTreeRequests} byte for byte.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeRequestsTest {
+
+    private static final int[] VALUES = { 0, 1, 9, 10, 99, 100, 255, 1000, -1, -9, -10, -100, Integer.MAX_VALUE,
+            Integer.MIN_VALUE + 1, Integer.MIN_VALUE };
+
+    @Test
+    public void encodesBrightness() {
+        assertBody("{\"mode\":\"enabled\",\"type\":\"A\",\"value\":40}", TwinklyTreeRequests.brightness(40));
+    }
+
+    @Test
+    public void encodesColor() {
+        assertBody("{\"hue\":359,\"saturation\":0,\"value\":255}", TwinklyTreeRequests.color(359, 0, 255));
+    }
+
+    @Test
+    public void encodesEffect() {
+        assertBody("{\"preset_id\":\"3\",\"effect_id\":\"3\"}", TwinklyTreeRequests.effect(3));
+    }
+
+    @Test
+    public void encodesMovieConfig() {
+        assertBody("{\"frame_delay\":40,\"leds_number\":250,\"frames_number\":12}",
+                TwinklyTreeRequests.movieConfig(40, 250, 12));
+    }
+
+    @Test
+    public void encodesMode() {
+        assertBody("{\"mode\":\"rt\"}", TwinklyTreeRequests.mode(MODE_RT));
+        assertBody("{\"mode\":\"custom\"}", TwinklyTreeRequests.mode("custom"));
+    }
+
+    @Test
+    public void encodesChallengeResponse() {
+        assertBody("{\"challenge-response\":\"0123abcd\"}", TwinklyTreeRequests.verify("0123abcd"));
+    }
+
+    @Test
+    public void encodesEveryNumberOfDigitsAndSign() {
+        for (int value : VALUES) {
+            assertBody("{\"id\":" + value + "}", TwinklyTreeRequests.movie(value));
+            assertBody("{\"hue\":" + value + ",\"saturation\":" + -value + ",\"value\":" + value + "}",
+                    TwinklyTreeRequests.color(value, -value, value));
+        }
+    }
+
+    @Test
+    public void encodesMinimumValue() {
+        assertBody("{\"id\":-2147483648}", TwinklyTreeRequests.movie(Integer.MIN_VALUE));
+    }
+
+    private static void assertBody(String expected, byte[] body) {
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), body,
+                () -> "Expected " + expected + " but was " + new String(body, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * The {@link XledSimulator} is an in-process fake Twinkly device serving the xled REST endpoints used by the
+ * binding and the UDP realtime port on loopback ports. Latency, token lifetime, packet loss and outages can be
+ * configured while it is running. Lost requests and requests during an outage are answered by closing the
+ * connection.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class XledSimulator implements AutoCloseable {
+
+    private static final int LED_COUNT = 250;
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Long> tokens = new ConcurrentHashMap<>();
+    private final DatagramSocket realtimeSocket;
+    private final Thread realtimeThread;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder logins = new LongAdder();
+    private final LongAdder logouts = new LongAdder();
+    private final LongAdder realtimePackets = new LongAdder();
+    private final LongAdder realtimeBytes = new LongAdder();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile int tokenLifetime = 14400;
+    private volatile double lossRate;
+    private volatile boolean offline;
+
+    private volatile String mode = "movie";
+    private volatile int brightness = 100;
+    private volatile int hue;
+    private volatile int saturation;
+    private volatile int value = 255;
+    private volatile int effect;
+    private volatile int movie;
+    private volatile int movieFrames;
+    private volatile int frameDelay;
+
+    public XledSimulator() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/xled/v1/", this::handle);
+        server.start();
+
+        realtimeSocket = new DatagramSocket(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        realtimeThread = new Thread(this::receiveRealtime, "xled-simulator-rt-" + realtimeSocket.getLocalPort());
+        realtimeThread.setDaemon(true);
+        realtimeThread.start();
+    }
+
+    /**
+     * Delays every response by the given time.
+     */
+    public XledSimulator withLatency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Sets the lifetime in seconds of tokens handed out on login.
+     */
+    public XledSimulator withTokenLifetime(int seconds) {
+        this.tokenLifetime = seconds;
+        return this;
+    }
+
+    /**
+     * Sets the share of requests and realtime packets, from 0 to 1, that are lost.
+     */
+    public XledSimulator withLossRate(double lossRate) {
+        this.lossRate = lossRate;
+        return this;
+    }
+
+    public void setOffline(boolean offline) {
+        this.offline = offline;
+    }
+
+    /**
+     * Invalidates all tokens, so the next authenticated request is rejected with HTTP 401.
+     */
+    public void expireTokens() {
+        tokens.clear();
+    }
+
+    public InetSocketAddress getRealtimeAddress() {
+        return (InetSocketAddress) realtimeSocket.getLocalSocketAddress();
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getLoginCount() {
+        return logins.sum();
+    }
+
+    public long getLogoutCount() {
+        return logouts.sum();
+    }
+
+    /**
+     * Returns the number of frames of the last uploaded movie.
+     */
+    public int getMovieFrameCount() {
+        return movieFrames;
+    }
+
+    public int getMovieFrameDelay() {
+        return frameDelay;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public int getBrightness() {
+        return brightness;
+    }
+
+    public long getRealtimePacketCount() {
+        return realtimePackets.sum();
+    }
+
+    public long getRealtimeByteCount() {
+        return realtimeBytes.sum();
+    }
+
+    /**
+     * Returns the host and port to configure as the <code>host</code> of a Twinkly thing.
+     */
+    public String getHost() {
+        return server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.increment();
+            if (offline || isLost()) {
+                return;
+            }
+            Duration latency = this.latency;
+            if (!latency.isZero()) {
+                try {
+                    Thread.sleep(latency.toMillis());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            String path = exchange.getRequestURI().getPath().substring("/xled/v1".length());
+            boolean post = "POST".equals(exchange.getRequestMethod());
+            boolean binary = "/led/movie/full".equals(path);
+            JsonObject body = post && !binary ? readBody(exchange) : new JsonObject();
+
+            if ("/login".equals(path)) {
+                byte[] tokenBytes = new byte[8];
+                ThreadLocalRandom.current().nextBytes(tokenBytes);
+                String token = Base64.getEncoder().encodeToString(tokenBytes);
+                int tokenLifetime = this.tokenLifetime;
+                tokens.put(token, System.currentTimeMillis() + tokenLifetime * 1000L);
+                logins.increment();
+                respond(exchange, 200, "{\"authentication_token\":\"" + token
+                        + "\",\"authentication_token_expires_in\":" + tokenLifetime
+                        + ",\"challenge-response\":\"0000\",\"code\":1000}");
+                return;
+            } else if ("/gestalt".equals(path)) {
+                respond(exchange, 200, "{\"device_name\":\"Simulator\",\"product_code\":\"TWS250STP\","
+                        + "\"hw_id\":\"sim\",\"mac\":\"00:00:00:00:00:01\",\"number_of_led\":" + LED_COUNT + ","
+                        + "\"bytes_per_led\":3,\"led_profile\":\"RGB\",\"code\":1000}");
+                return;
+            } else if ("/led/layout/full".equals(path)) {
+                respond(exchange, 200, layoutJson(LED_COUNT));
+                return;
+            } else if ("/fw/version".equals(path)) {
+                respond(exchange, 200, "{\"version\":\"2.8.10\",\"code\":1000}");
+                return;
+            }
+
+            if (!isAuthorized(exchange)) {
+                respond(exchange, 401, "{\"code\":1104}");
+                return;
+            }
+            switch (path) {
+                case "/verify":
+                    respond(exchange, 200, "{\"code\":1000}");
+                    break;
+                case "/logout":
+                    tokens.remove(exchange.getRequestHeaders().getFirst("X-Auth-Token"));
+                    logouts.increment();
+                    respond(exchange, 200, "{\"code\":1000}");
+                    break;
+                case "/led/mode":
+                    if (post) {
+                        mode = getString(body, "mode", mode);
+                        respond(exchange, 200, "{\"code\":1000}");
+                    } else {
+                        respond(exchange, 200, "{\"mode\":\"" + mode + "\",\"code\":1000}");
+                    }
+                    break;
+                case "/led/out/brightness":
+                    if (post) {
+                        brightness = getInt(body, "value", brightness);
+                        respond(exchange, 200, "{\"code\":1000}");
+                    } else {
+                        respond(exchange, 200, "{\"mode\":\"enabled\",\"value\":" + brightness + ",\"code\":1000}");
+                    }
+                    break;
+                case "/led/color":
+                    if (post) {
+                        hue = getInt(body, "hue", hue);
+                        saturation = getInt(body, "saturation", saturation);
+                        value = getInt(body, "value", value);
+                        respond(exchange, 200, "{\"code\":1000}");
+                    } else {
+                        respond(exchange, 200, "{\"hue\":" + hue + ",\"saturation\":" + saturation + ",\"value\":"
+                                + value + ",\"red\":0,\"green\":0,\"blue\":0,\"code\":1000}");
+                    }
+                    break;
+                case "/led/effects/current":
+                    if (post) {
+                        effect = getInt(body, "preset_id", effect);
+                        respond(exchange, 200, "{\"code\":1000}");
+                    } else {
+                        respond(exchange, 200, "{\"preset_id\":" + effect + ",\"code\":1000}");
+                    }
+                    break;
+                case "/movies":
+                    respond(exchange, 200, "{\"movies\":[{\"id\":0,\"name\":\"Twinkle\"},"
+                            + "{\"id\":1,\"name\":\"Rainbow\"}],\"available_frames\":15000,\"code\":1000}");
+                    break;
+                case "/led/effects":
+                    respond(exchange, 200, "{\"effects_number\":5,\"code\":1000}");
+                    break;
+                case "/playlist":
+                    respond(exchange, 200, "{\"entries\":[{\"id\":0,\"name\":\"Twinkle\",\"duration\":30}],"
+                            + "\"code\":1000}");
+                    break;
+                case "/led/movie/full":
+                    long size = exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+                    movieFrames = (int) (size / (LED_COUNT * 3));
+                    respond(exchange, 200, "{\"frames_number\":" + movieFrames + ",\"code\":1000}");
+                    break;
+                case "/led/movie/config":
+                    frameDelay = getInt(body, "frame_delay", frameDelay);
+                    respond(exchange, 200, "{\"code\":1000}");
+                    break;
+                case "/movies/current":
+                    if (post) {
+                        movie = getInt(body, "id", movie);
+                        respond(exchange, 200, "{\"code\":1000}");
+                    } else {
+                        respond(exchange, 200, "{\"id\":" + movie + ",\"name\":\"Movie\",\"code\":1000}");
+                    }
+                    break;
+                default:
+                    respond(exchange, 404, "{\"code\":1102}");
+            }
+        }
+    }
+
+    /**
+     * Returns the layout of LEDs wound in a spiral around a cone, as reported by a mapped tree.
+     */
+    static String layoutJson(int ledCount) {
+        StringBuilder json = new StringBuilder("{\"source\":\"3D\",\"synthesized\":false,\"coordinates\":[");
+        for (int i = 0; i < ledCount; i++) {
+            double height = (double) i / ledCount;
+            double angle = i * 0.3;
+            double radius = 1 - height;
+            json.append(i > 0 ? "," : "").append("{\"x\":").append((float) (radius * Math.cos(angle)))
+                    .append(",\"y\":").append((float) height).append(",\"z\":")
+                    .append((float) (radius * Math.sin(angle))).append('}');
+        }
+        return json.append("],\"code\":1000}").toString();
+    }
+
+    private void receiveRealtime() {
+        DatagramPacket packet = new DatagramPacket(new byte[2048], 2048);
+        while (!realtimeSocket.isClosed()) {
+            try {
+                realtimeSocket.receive(packet);
+                if (!offline && !isLost()) {
+                    realtimePackets.increment();
+                    realtimeBytes.add(packet.getLength());
+                }
+            } catch (IOException e) {
+                // socket closed
+            }
+        }
+    }
+
+    private boolean isLost() {
+        double lossRate = this.lossRate;
+        return lossRate > 0 && ThreadLocalRandom.current().nextDouble() < lossRate;
+    }
+
+    private boolean isAuthorized(HttpExchange exchange) {
+        String token = exchange.getRequestHeaders().getFirst("X-Auth-Token");
+        Long expiry = token != null ? tokens.get(token) : null;
+        return expiry != null && System.currentTimeMillis() < expiry;
+    }
+
+    private static JsonObject readBody(HttpExchange exchange) throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            JsonElement element = JsonParser.parseReader(reader);
+            return element.isJsonObject() ? element.getAsJsonObject() : new JsonObject();
+        }
+    }
+
+    private static String getString(JsonObject body, String key, String defaultValue) {
+        JsonElement element = body.get(key);
+        return element != null ? element.getAsString() : defaultValue;
+    }
+
+    private static int getInt(JsonObject body, String key, int defaultValue) {
+        JsonElement element = body.get(key);
+        return element != null ? element.getAsInt() : defaultValue;
+    }
+
+    private static void respond(HttpExchange exchange, int status, @Nullable String json) throws IOException {
+        byte[] bytes = json != null ? json.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        realtimeSocket.close();
+    }
+}
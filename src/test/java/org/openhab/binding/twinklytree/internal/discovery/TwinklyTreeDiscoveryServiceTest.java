@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal.discovery;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link TwinklyTreeDiscoveryService} reply handling against a local UDP responder.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class TwinklyTreeDiscoveryServiceTest {
+
+    private static final byte[] VALID_REPLY = { 127, 0, 0, 1, 'O', 'K', 'T', 'w', 'i', 'n', 'k', 'l', 'y', 0 };
+    private static final byte[] TRUNCATED_REPLY = { 127, 0, 0, 1, 'O' };
+
+    private @Nullable Responder responder;
+
+    @AfterEach
+    public void tearDown() {
+        Responder responder = this.responder;
+        if (responder != null) {
+            responder.close();
+        }
+    }
+
+    @Test
+    public void parsesValidReply() {
+        assertEquals("Twinkly", TwinklyTreeDiscoveryService.parseReply(ByteBuffer.wrap(VALID_REPLY)));
+    }
+
+    @Test
+    public void parsesReplyWithoutTerminator() {
+        byte[] reply = { 127, 0, 0, 1, 'O', 'K', 'T', 'r', 'e', 'e' };
+        assertEquals("Tree", TwinklyTreeDiscoveryService.parseReply(ByteBuffer.wrap(reply)));
+    }
+
+    @Test
+    public void rejectsTruncatedReply() {
+        assertNull(TwinklyTreeDiscoveryService.parseReply(ByteBuffer.wrap(TRUNCATED_REPLY)));
+    }
+
+    @Test
+    public void rejectsReplyWithoutStatus() {
+        byte[] reply = { 127, 0, 0, 1, 'N', 'O', 'T', 'w', 'i', 'n', 'k', 'l', 'y', 0 };
+        assertNull(TwinklyTreeDiscoveryService.parseReply(ByteBuffer.wrap(reply)));
+    }
+
+    @Test
+    public void collectsValidReply() throws IOException {
+        List<String> replies = new ArrayList<>();
+        Map<String, String> devices = startResponder(VALID_REPLY).collectReplies((host, name) -> replies.add(name));
+
+        assertEquals(Map.of("127.0.0.1", "Twinkly"), devices);
+        assertEquals(List.of("Twinkly"), replies);
+    }
+
+    @Test
+    public void ignoresTruncatedReply() throws IOException {
+        List<String> replies = new ArrayList<>();
+        Map<String, String> devices = startResponder(TRUNCATED_REPLY)
+                .collectReplies((host, name) -> replies.add(name));
+
+        assertTrue(devices.isEmpty());
+        assertTrue(replies.isEmpty());
+    }
+
+    @Test
+    public void reportsDuplicateReplyOnce() throws IOException {
+        List<String> replies = new ArrayList<>();
+        Map<String, String> devices = startResponder(VALID_REPLY, VALID_REPLY)
+                .collectReplies((host, name) -> replies.add(name));
+
+        assertEquals(Map.of("127.0.0.1", "Twinkly"), devices);
+        assertEquals(List.of("Twinkly"), replies);
+    }
+
+    private TwinklyTreeDiscoveryService startResponder(byte[]... replies) throws IOException {
+        Responder responder = new Responder(replies);
+        this.responder = responder;
+        responder.start();
+        return new TwinklyTreeDiscoveryService(responder.getAddress());
+    }
+
+    /**
+     * Answers the discovery message on the loopback interface with the given replies.
+     */
+    private static class Responder extends Thread {
+
+        private final DatagramSocket socket;
+        private final byte[][] replies;
+
+        Responder(byte[]... replies) throws SocketException {
+            super("twinklytree-discovery-responder");
+            this.socket = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+            this.replies = replies;
+            setDaemon(true);
+        }
+
+        InetSocketAddress getAddress() {
+            return new InetSocketAddress(InetAddress.getLoopbackAddress(), socket.getLocalPort());
+        }
+
+        @Override
+        public void run() {
+            byte[] buffer = new byte[64];
+            DatagramPacket request = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(request);
+                if (!"\u0001discover".equals(new String(request.getData(), 0, request.getLength(),
+                        StandardCharsets.US_ASCII))) {
+                    return;
+                }
+                for (byte[] reply : replies) {
+                    socket.send(new DatagramPacket(reply, reply.length, request.getSocketAddress()));
+                }
+            } catch (IOException e) {
+                // closed by the test
+            }
+        }
+
+        void close() {
+            socket.close();
+        }
+    }
+}
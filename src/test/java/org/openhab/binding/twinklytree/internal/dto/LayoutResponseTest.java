@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2010-2026 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.twinklytree.internal.dto;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.Gson;
+
+/**
+ * Tests the streaming {@link LayoutResponse.Adapter}.
+ *
+ * @author Pavion - Initial contribution
+ */
+@NonNullByDefault
+public class LayoutResponseTest {
+
+    private final Gson gson = new Gson();
+
+    @Test
+    public void decodesCoordinates() {
+        LayoutResponse layout = gson.fromJson("{\"source\":\"3d\",\"synthesized\":false,\"coordinates\":["
+                + "{\"x\":-1.0,\"y\":0.0,\"z\":0.5},{\"z\":-0.25,\"y\":1,\"x\":0.125}],\"code\":1000}",
+                LayoutResponse.class);
+
+        assertEquals("3d", layout.source);
+        assertEquals(1000, layout.code);
+        assertEquals(2, layout.size());
+        assertArrayEquals(new float[] { -1.0f, 0.125f }, layout.x);
+        assertArrayEquals(new float[] { 0.0f, 1.0f }, layout.y);
+        assertArrayEquals(new float[] { 0.5f, -0.25f }, layout.z);
+    }
+
+    @Test
+    public void skipsUnknownFields() {
+        LayoutResponse layout = gson.fromJson(
+                "{\"coordinates\":[{\"x\":0.5,\"y\":0.5,\"z\":0.5,\"extra\":{\"a\":[1,2]}}],\"uuid\":\"abc\"}",
+                LayoutResponse.class);
+
+        assertEquals(1, layout.size());
+        assertArrayEquals(new float[] { 0.5f }, layout.x);
+    }
+
+    @Test
+    public void growsBeyondInitialCapacity() {
+        StringBuilder json = new StringBuilder("{\"coordinates\":[");
+        for (int i = 0; i < 600; i++) {
+            json.append(i > 0 ? "," : "").append("{\"x\":").append(i).append(",\"y\":0,\"z\":0}");
+        }
+        LayoutResponse layout = gson.fromJson(json.append("]}").toString(), LayoutResponse.class);
+
+        assertEquals(600, layout.size());
+        assertEquals(0.0f, layout.x[0]);
+        assertEquals(599.0f, layout.x[599]);
+        assertEquals(600, layout.y.length);
+        assertEquals(600, layout.z.length);
+    }
+
+    @Test
+    public void decodesEmptyLayout() {
+        LayoutResponse layout = gson.fromJson("{\"code\":1000}", LayoutResponse.class);
+
+        assertEquals(0, layout.size());
+        assertEquals(0, layout.y.length);
+    }
+
+    @Test
+    public void writesWhatItReads() {
+        String json = "{\"source\":\"2d\",\"coordinates\":[{\"x\":0.25,\"y\":0.5,\"z\":-0.75}],\"code\":1000}";
+
+        assertEquals(json, gson.toJson(gson.fromJson(json, LayoutResponse.class)));
+    }
+}